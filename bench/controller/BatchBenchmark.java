@@ -0,0 +1,99 @@
+package controller;
+
+import java.util.List;
+import java.util.Random;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.PlayColor;
+
+/**
+ * BatchBenchmark compares the time it takes to score many positions with the bundled pattern
+ * weights of boards of size 6 and 8 in three ways: through a model, the way a search scores a
+ * position it was not keeping the pattern indices of, one packed position at a time, and in
+ * batches of packed positions.
+ * The positions are a fixed suite of positions of random games, so every run scores the same
+ * positions. It prints the nanoseconds every way takes per position, best of several rounds.
+ * This is a plain main method rather than a test so that it never slows the test suite down.
+ */
+public final class BatchBenchmark {
+  private static final int[] SIZES = {6, 8};
+  private static final int POSITIONS = 4096;
+  private static final int ROUNDS = 20;
+
+  private BatchBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints the time every way takes per position.
+   */
+  public static void main(String[] args) {
+    System.out.println("size  model ns  single ns  batch ns");
+    for (int size : SIZES) {
+      PatternWeights weights = PatternWeights.forBoardSize(size);
+      BatchEvaluator batch = new BatchEvaluator(weights);
+      PatternEvaluator patterns = new PatternEvaluator(weights);
+      BasicReversi[] models = suite(size);
+      long[] boards = new long[POSITIONS * batch.getStride()];
+      for (int position = 0; position < POSITIONS; position++) {
+        models[position].snapshot().packDiscs(boards, position * batch.getStride());
+      }
+      int[] values = new int[POSITIONS];
+      long modelSum = 0;
+      long singleSum = 0;
+      long batchSum = 0;
+      long model = Long.MAX_VALUE;
+      long single = Long.MAX_VALUE;
+      long batched = Long.MAX_VALUE;
+      for (int round = 0; round < ROUNDS; round++) {
+        long start = System.nanoTime();
+        for (BasicReversi position : models) {
+          patterns.reset(position);
+          modelSum += patterns.evaluate(position, PlayColor.BLACK);
+        }
+        model = Math.min(model, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int position = 0; position < POSITIONS; position++) {
+          singleSum += batch.evaluate(boards, position * batch.getStride());
+        }
+        single = Math.min(single, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        batch.evaluate(boards, POSITIONS, values);
+        batched = Math.min(batched, System.nanoTime() - start);
+        for (int value : values) {
+          batchSum += value;
+        }
+      }
+      System.out.printf("%4d  %8.0f  %9.0f  %8.0f%n", size, (double) model / POSITIONS,
+              (double) single / POSITIONS, (double) batched / POSITIONS);
+      if (modelSum != singleSum || singleSum != batchSum) {
+        throw new IllegalStateException("the ways disagree");
+      }
+    }
+  }
+
+  /**
+   * Returns the positions of random games on boards of the given size played from a fixed seed.
+   */
+  private static BasicReversi[] suite(int size) {
+    Random random = new Random(size);
+    BasicReversi[] positions = new BasicReversi[POSITIONS];
+    BasicReversi model = new BasicReversi(size);
+    for (int position = 0; position < POSITIONS; position++) {
+      if (model.isGameOver()) {
+        model = new BasicReversi(size);
+      }
+      positions[position] = new BasicReversi(model.snapshot());
+      List<Coordinate> moves = model.getAllMoves();
+      if (moves.isEmpty()) {
+        model.pass();
+      } else {
+        Coordinate move = moves.get(random.nextInt(moves.size()));
+        model.move(move.getQ(), move.getR());
+      }
+    }
+    return positions;
+  }
+}
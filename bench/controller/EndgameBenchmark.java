@@ -0,0 +1,85 @@
+package controller;
+
+import java.util.List;
+import java.util.Random;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.ReversiModel;
+
+/**
+ * EndgameBenchmark measures how long the EndgameSolver takes to solve endgames on a board of size
+ * 6, exactly and for the outcome only, by the number of EMPTY cells left.
+ * About twenty cells of a size 6 board are never filled in a typical game, so the EMPTY counts
+ * start above twenty; the number of moves left to play is roughly the count minus twenty.
+ * For every count it plays a few fixed random games down to that count and prints the average
+ * and the longest time to solve them and the positions visited per second.
+ * This is a plain main method rather than a test so that it never slows the test suite down.
+ */
+public final class EndgameBenchmark {
+  private static final int SIZE = 6;
+  private static final int[] EMPTIES = {32, 34, 36, 38, 40};
+  private static final int POSITIONS = 6;
+  private static final long BUDGET_MILLIS = 60_000;
+
+  private EndgameBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints the solving times for every EMPTY count and mode.
+   */
+  public static void main(String[] args) {
+    System.out.println("empties  mode     avg ms   max ms   nodes/s  unsolved");
+    for (int round = 0; round < 2; round++) { // the first round only warms up the JIT
+      for (int empties : EMPTIES) {
+        for (boolean outcomeOnly : new boolean[] {true, false}) {
+          Random random = new Random(empties);
+          long total = 0;
+          long longest = 0;
+          long nodes = 0;
+          int unsolved = 0;
+          for (int p = 0; p < POSITIONS; p++) {
+            EndgameSolver solver = new EndgameSolver(BUDGET_MILLIS, outcomeOnly);
+            ReversiModel position = endgame(random, empties);
+            long start = System.nanoTime();
+            solver.decideMove(position);
+            long nanos = System.nanoTime() - start;
+            total += nanos;
+            longest = Math.max(longest, nanos);
+            nodes += solver.getLastNodes();
+            if (!solver.isLastSolved()) {
+              unsolved++;
+            }
+          }
+          if (round == 1) {
+            System.out.printf("%7d  %-7s  %7.1f  %7.1f  %8.0f  %8d%n", empties,
+                    outcomeOnly ? "outcome" : "exact", total / 1e6 / POSITIONS, longest / 1e6,
+                    nodes / (total / 1e9), unsolved);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a model after random moves down to the given number of EMPTY cells, with a move for
+   * the player to move.
+   */
+  private static ReversiModel endgame(Random random, int empties) {
+    while (true) {
+      ReversiModel model = new BasicReversi(SIZE);
+      while (!model.isGameOver() && model.getEmptyCount() > empties) {
+        List<Coordinate> legal = model.getAllMoves();
+        if (legal.isEmpty()) {
+          model.pass();
+        } else {
+          Coordinate chosen = legal.get(random.nextInt(legal.size()));
+          model.move(chosen.getQ(), chosen.getR());
+        }
+      }
+      if (!model.isGameOver() && !model.getAllMoves().isEmpty()) {
+        return model;
+      }
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.ReversiModel;
+
+/**
+ * OpeningBookBuilding builds an opening book from games AlphaBetaStrategy plays against itself.
+ * Every game starts with a few random moves so that the games differ, then both sides search to
+ * a fixed depth. The moves of the first plies of every game go into the book.
+ * This is a plain main method rather than a test, run to produce a book:
+ * OpeningBookBuilding boardSize games plies minGames file.
+ */
+public final class OpeningBookBuilding {
+  private static final int RANDOM_PLIES = 4; // the random moves every game starts with
+  private static final int DEPTH = 4; // the depth both sides search to
+
+  private OpeningBookBuilding() {
+  }
+
+  /**
+   * Plays the given number of games on boards of the given size, and writes the book of their
+   * first plies, without the moves played in fewer than minGames games, to the given file.
+   */
+  public static void main(String[] args) throws IOException {
+    int boardSize = Integer.parseInt(args[0]);
+    int games = Integer.parseInt(args[1]);
+    int plies = Integer.parseInt(args[2]);
+    int minGames = Integer.parseInt(args[3]);
+    OpeningBookBuilder builder = new OpeningBookBuilder(boardSize, plies);
+    AlphaBetaStrategy search = AlphaBetaStrategy.builder(60_000).maxDepth(DEPTH)
+            .table(new TranspositionTable(16)).build();
+    Random random = new Random(1);
+    for (int game = 1; game <= games; game++) {
+      builder.addGame(play(boardSize, search, random));
+      if (game % 100 == 0) {
+        System.out.println(game + " games");
+      }
+    }
+    int entries = builder.write(Paths.get(args[4]), minGames);
+    System.out.println(entries + " entries written to " + args[4]);
+  }
+
+  private static List<Coordinate> play(int boardSize, AlphaBetaStrategy search, Random random) {
+    ReversiModel model = new BasicReversi(boardSize);
+    List<Coordinate> moves = new ArrayList<>();
+    while (!model.isGameOver()) {
+      List<Coordinate> legal = model.getAllMoves();
+      Coordinate move;
+      if (legal.isEmpty()) {
+        move = null;
+        model.pass();
+      } else {
+        move = moves.size() < RANDOM_PLIES ? legal.get(random.nextInt(legal.size()))
+                : search.decideMove(model);
+        model.move(move.getQ(), move.getR());
+      }
+      moves.add(move);
+    }
+    return moves;
+  }
+}
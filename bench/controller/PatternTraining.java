@@ -0,0 +1,192 @@
+package controller;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.MoveDelta;
+import model.PlayColor;
+import model.ReversiModel;
+
+/**
+ * PatternTraining fits PatternWeights to the results of games the weights play against
+ * themselves, and writes them in the binary format PatternWeights reads.
+ * Every game is played by picking, for the player to move, the move that leads to the position
+ * the current weights like best, or a random move at a small rate so that the games differ. Every
+ * position of the game is then fitted towards the final disc difference of the game by stochastic
+ * gradient descent, both as played and with the colors swapped, since swapping the colors of every
+ * disc swaps the result.
+ * This is a plain main method rather than a test, run once to produce the bundled weights:
+ * PatternTraining boardSize games file.
+ */
+public final class PatternTraining {
+  private static final double EXPLORATION = 0.1; // the rate of random moves
+  private static final double LEARNING_RATE = 0.002; // the step of every update, per feature
+
+  private final int boardSize;
+  private final PatternSet patterns;
+  private final int cells;
+  private final double[][][] tables; // the weights being fitted, in discs
+  private final double[] mobility; // the mobility weights being fitted, in discs
+  private final int[][] swapped; // the index of every pattern index with the colors swapped
+  private final Random random = new Random(1);
+
+  private PatternTraining(int boardSize) {
+    this.boardSize = boardSize;
+    this.patterns = PatternSet.of(boardSize);
+    this.cells = model.HexGeometry.of(boardSize).cellCount();
+    this.tables = new double[PatternWeights.STAGES][PatternSet.PATTERNS][];
+    this.mobility = new double[PatternWeights.STAGES];
+    for (int stage = 0; stage < PatternWeights.STAGES; stage++) {
+      for (int pattern = 0; pattern < PatternSet.PATTERNS; pattern++) {
+        tables[stage][pattern] = new double[patterns.tableLength[pattern]];
+      }
+    }
+    this.swapped = new int[PatternSet.PATTERNS][];
+    for (int pattern = 0; pattern < PatternSet.PATTERNS; pattern++) {
+      swapped[pattern] = new int[patterns.tableLength[pattern]];
+      for (int index = 0; index < swapped[pattern].length; index++) {
+        int rest = index;
+        int result = 0;
+        for (int power = 1; rest > 0; power *= 3, rest /= 3) {
+          int digit = rest % 3;
+          result += power * (digit == 0 ? 0 : 3 - digit);
+        }
+        swapped[pattern][index] = result;
+      }
+    }
+  }
+
+  /**
+   * Trains weights for the board size given as the first argument on the number of games given
+   * as the second, and writes them to the file named by the third.
+   */
+  public static void main(String[] args) throws IOException {
+    int boardSize = Integer.parseInt(args[0]);
+    int games = Integer.parseInt(args[1]);
+    PatternTraining training = new PatternTraining(boardSize);
+    double error = 0;
+    for (int game = 1; game <= games; game++) {
+      error += training.playAndFit();
+      if (game % 1000 == 0) {
+        System.out.printf("%d games, mean squared error %.1f%n", game, error / 1000);
+        error = 0;
+      }
+    }
+    try (OutputStream out = new FileOutputStream(args[2])) {
+      training.toWeights().write(out);
+    }
+  }
+
+  /**
+   * Plays one game and fits the weights to its positions, returning the mean squared error of
+   * the predictions before fitting.
+   */
+  private double playAndFit() {
+    ReversiModel model = new BasicReversi(boardSize);
+    PatternEvaluator evaluator = new PatternEvaluator(new PatternWeights(boardSize));
+    evaluator.reset(model);
+    List<int[]> positions = new ArrayList<>(); // the indices, stage and mobility of positions
+    while (!model.isGameOver()) {
+      positions.add(features(model, evaluator));
+      List<Coordinate> moves = model.getAllMoves();
+      if (moves.isEmpty()) {
+        model.pass();
+        continue;
+      }
+      Coordinate chosen = moves.get(random.nextInt(moves.size()));
+      if (random.nextDouble() >= EXPLORATION) {
+        double best = Double.NEGATIVE_INFINITY;
+        double sign = model.getColor() == PlayColor.BLACK ? 1 : -1;
+        for (Coordinate move : moves) {
+          MoveDelta delta = model.makeMove(move.getQ(), move.getR());
+          evaluator.apply(delta);
+          double value = sign * predict(features(model, evaluator), false);
+          evaluator.undo(delta);
+          model.unmakeMove(delta);
+          if (value > best) {
+            best = value;
+            chosen = move;
+          }
+        }
+      }
+      MoveDelta delta = model.makeMove(chosen.getQ(), chosen.getR());
+      evaluator.apply(delta);
+    }
+
+    double result = model.getScore(PlayColor.BLACK) - model.getScore(PlayColor.WHITE);
+    double error = 0;
+    for (int[] position : positions) {
+      double miss = result - predict(position, false);
+      error += miss * miss;
+      fit(position, false, miss);
+      fit(position, true, -result - predict(position, true));
+    }
+    return error / positions.size();
+  }
+
+  /**
+   * Returns the index of every pattern instance, then the stage and the mobility difference.
+   */
+  private int[] features(ReversiModel model, PatternEvaluator evaluator) {
+    int[] features = new int[patterns.instanceCount() + 2];
+    for (int instance = 0; instance < patterns.instanceCount(); instance++) {
+      features[instance] = evaluator.indexOf(instance);
+    }
+    int discs = model.getScore(PlayColor.BLACK) + model.getScore(PlayColor.WHITE);
+    features[patterns.instanceCount()] = PatternWeights.stageOf(discs, cells);
+    features[patterns.instanceCount() + 1] =
+            model.getMobility(PlayColor.BLACK) - model.getMobility(PlayColor.WHITE);
+    return features;
+  }
+
+  private double predict(int[] features, boolean swap) {
+    int count = patterns.instanceCount();
+    int stage = features[count];
+    double value = mobility[stage] * features[count + 1] * (swap ? -1 : 1);
+    for (int instance = 0; instance < count; instance++) {
+      int pattern = patterns.instancePattern[instance];
+      int index = swap ? swapped[pattern][features[instance]] : features[instance];
+      value += tables[stage][pattern][index];
+    }
+    return value;
+  }
+
+  private void fit(int[] features, boolean swap, double miss) {
+    int count = patterns.instanceCount();
+    int stage = features[count];
+    double step = LEARNING_RATE * miss;
+    mobility[stage] += step * features[count + 1] * (swap ? -1 : 1) / cells;
+    for (int instance = 0; instance < count; instance++) {
+      int pattern = patterns.instancePattern[instance];
+      int index = swap ? swapped[pattern][features[instance]] : features[instance];
+      tables[stage][pattern][index] += step;
+    }
+  }
+
+  /**
+   * Rounds the fitted weights to PatternWeights.
+   */
+  private PatternWeights toWeights() {
+    PatternWeights weights = new PatternWeights(boardSize);
+    for (int stage = 0; stage < PatternWeights.STAGES; stage++) {
+      weights.mobility[stage] = toShort(mobility[stage]);
+      for (int pattern = 0; pattern < PatternSet.PATTERNS; pattern++) {
+        for (int index = 0; index < tables[stage][pattern].length; index++) {
+          weights.tables[stage][pattern][index] = toShort(tables[stage][pattern][index]);
+        }
+      }
+    }
+    return weights;
+  }
+
+  private static short toShort(double discs) {
+    long units = Math.round(discs * PatternWeights.SCALE);
+    return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, units));
+  }
+}
@@ -0,0 +1,138 @@
+package controller;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.ReversiModel;
+
+/**
+ * ProbCutCalibration fits the ProbCut calibration of one board size and evaluation to searches
+ * of positions from self-play.
+ * The positions come from games of a two-ply AlphaBetaStrategy that plays a random move at a
+ * small rate so that the games differ, a few positions picked at random from every game. Every
+ * position is searched by iterative deepening up to the deepest depth, without selective
+ * pruning, and the value of every finished depth is kept. For every depth from ProbCut.MIN_DEPTH
+ * on, the values of that depth are fitted to those of its shallow depth, as
+ * ProbCut.shallowDepthFor() pairs them, by least squares, leaving out finished games. The
+ * standard deviation is that of the residuals.
+ * This is a plain main method rather than a test, run once to produce the bundled calibrations:
+ * ProbCutCalibration boardSize positions maxDepth patterns file, patterns being true or false.
+ */
+public final class ProbCutCalibration {
+  private static final double EXPLORATION = 0.2; // the rate of random moves in the games
+  private static final double SAMPLING = 0.25; // the rate at which positions are picked
+  private static final int MIN_SAMPLES = 30; // the fewest pairs a depth is fitted to
+
+  private ProbCutCalibration() {
+  }
+
+  /**
+   * Fits the calibration for the board size given as the first argument to the number of
+   * positions given as the second, searched to the depth given as the third, with the pattern
+   * evaluation if the fourth is true, and writes it to the file named by the fifth.
+   */
+  public static void main(String[] args) throws IOException {
+    int boardSize = Integer.parseInt(args[0]);
+    int count = Integer.parseInt(args[1]);
+    int maxDepth = Integer.parseInt(args[2]);
+    boolean patterns = Boolean.parseBoolean(args[3]);
+    PatternWeights weights = patterns ? PatternWeights.forBoardSize(boardSize) : null;
+
+    List<ReversiModel> positions = positions(boardSize, count, weights);
+    // the deep and shallow values of every depth, as pairs
+    List<List<double[]>> pairs = new ArrayList<>();
+    for (int depth = 0; depth <= maxDepth; depth++) {
+      pairs.add(new ArrayList<>());
+    }
+    for (int p = 0; p < positions.size(); p++) {
+      AlphaBetaStrategy search = AlphaBetaStrategy.builder(Integer.MAX_VALUE).maxDepth(maxDepth)
+              .table(new TranspositionTable(16)).weights(weights).window(SearchWindow.FULL)
+              .build();
+      search.decideMove(positions.get(p));
+      int[] values = search.getLastValues();
+      for (int depth = ProbCut.MIN_DEPTH; depth < values.length; depth++) {
+        int shallow = values[ProbCut.shallowDepthFor(depth)];
+        int deep = values[depth];
+        if (Math.abs(shallow) < AlphaBetaStrategy.WIN / 2
+                && Math.abs(deep) < AlphaBetaStrategy.WIN / 2) {
+          pairs.get(depth).add(new double[] {shallow, deep});
+        }
+      }
+      if ((p + 1) % 100 == 0) {
+        System.out.println((p + 1) + " positions searched");
+      }
+    }
+
+    ProbCut cuts = new ProbCut(boardSize, patterns);
+    for (int depth = ProbCut.MIN_DEPTH; depth <= maxDepth; depth++) {
+      List<double[]> samples = pairs.get(depth);
+      if (samples.size() < MIN_SAMPLES) {
+        continue;
+      }
+      double meanX = 0;
+      double meanY = 0;
+      for (double[] pair : samples) {
+        meanX += pair[0];
+        meanY += pair[1];
+      }
+      meanX /= samples.size();
+      meanY /= samples.size();
+      double covariance = 0;
+      double variance = 0;
+      for (double[] pair : samples) {
+        covariance += (pair[0] - meanX) * (pair[1] - meanY);
+        variance += (pair[0] - meanX) * (pair[0] - meanX);
+      }
+      double slope = covariance / variance;
+      double intercept = meanY - slope * meanX;
+      double squares = 0;
+      for (double[] pair : samples) {
+        double residual = pair[1] - slope * pair[0] - intercept;
+        squares += residual * residual;
+      }
+      double deviation = Math.sqrt(squares / (samples.size() - 2));
+      System.out.printf("depth %d from %d: %d pairs, slope %.3f, intercept %.2f, deviation %.2f%n",
+              depth, ProbCut.shallowDepthFor(depth), samples.size(), slope, intercept,
+              deviation);
+      if (slope > 0) {
+        cuts.set(depth, ProbCut.shallowDepthFor(depth), slope, intercept, deviation);
+      }
+    }
+    try (OutputStream out = new FileOutputStream(args[4])) {
+      cuts.write(out);
+    }
+  }
+
+  /**
+   * Returns the given number of positions, with a choice of moves, from self-play games.
+   */
+  private static List<ReversiModel> positions(int boardSize, int count, PatternWeights weights) {
+    Random random = new Random(boardSize);
+    AlphaBetaStrategy player = AlphaBetaStrategy.builder(Integer.MAX_VALUE).maxDepth(2)
+            .weights(weights).build();
+    List<ReversiModel> positions = new ArrayList<>();
+    while (positions.size() < count) {
+      ReversiModel model = new BasicReversi(boardSize);
+      while (!model.isGameOver() && positions.size() < count) {
+        List<Coordinate> moves = model.getAllMoves();
+        if (moves.isEmpty()) {
+          model.pass();
+          continue;
+        }
+        if (moves.size() > 1 && random.nextDouble() < SAMPLING) {
+          positions.add(new BasicReversi(model.snapshot()));
+        }
+        Coordinate move = random.nextDouble() < EXPLORATION
+                ? moves.get(random.nextInt(moves.size())) : player.decideMove(model);
+        model.move(move.getQ(), move.getR());
+      }
+    }
+    return positions;
+  }
+}
@@ -0,0 +1,84 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.ReversiModel;
+
+/**
+ * SearchBenchmark measures how the parallel AlphaBetaStrategy scales with its thread count on
+ * boards of size 6 and 8.
+ * For every size it plays a few fixed random openings, then searches each position to a fixed
+ * depth with 1, 2, 4, ... threads up to the number of available processors, each time with a
+ * fresh shared TranspositionTable. It prints the average time to reach the depth and the number
+ * of positions visited per second by all threads together.
+ * This is a plain main method rather than a test so that it never slows the test suite down.
+ */
+public final class SearchBenchmark {
+  private static final int[] SIZES = {6, 8};
+  private static final int[] DEPTHS = {11, 9}; // the depth searched on the board of each size
+  private static final int POSITIONS = 4;
+  private static final int OPENING_MOVES = 6;
+  private static final int TABLE_MEGABYTES = 64;
+
+  private SearchBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints the time to depth and the nodes per second for every board
+   * size and thread count.
+   */
+  public static void main(String[] args) {
+    int processors = Runtime.getRuntime().availableProcessors();
+    System.out.println("available processors: " + processors);
+    System.out.println("size  depth  threads  ms to depth  nodes/s    speedup");
+    for (int round = 0; round < 2; round++) { // the first round only warms up the JIT
+      for (int s = 0; s < SIZES.length; s++) {
+        List<ReversiModel> positions = openings(SIZES[s]);
+        double single = 0;
+        for (int threads = 1; threads <= Math.max(2, processors); threads *= 2) {
+          long nanos = 0;
+          long nodes = 0;
+          for (ReversiModel position : positions) {
+            AlphaBetaStrategy search = AlphaBetaStrategy.builder(Integer.MAX_VALUE)
+                    .maxDepth(DEPTHS[s]).table(new TranspositionTable(TABLE_MEGABYTES))
+                    .threads(threads).build();
+            long start = System.nanoTime();
+            search.decideMove(position);
+            nanos += System.nanoTime() - start;
+            nodes += search.getLastNodes();
+          }
+          if (threads == 1) {
+            single = nanos;
+          }
+          if (round == 1) {
+            System.out.printf("%4d  %5d  %7d  %11.1f  %9.0f  %7.2f%n", SIZES[s], DEPTHS[s],
+                    threads, nanos / 1e6 / positions.size(), nodes / (nanos / 1e9),
+                    single / nanos);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns POSITIONS models of the given size, each after OPENING_MOVES random moves.
+   */
+  private static List<ReversiModel> openings(int size) {
+    Random random = new Random(size);
+    List<ReversiModel> positions = new ArrayList<>();
+    for (int p = 0; p < POSITIONS; p++) {
+      ReversiModel model = new BasicReversi(size);
+      for (int move = 0; move < OPENING_MOVES; move++) {
+        List<Coordinate> legal = model.getAllMoves();
+        Coordinate chosen = legal.get(random.nextInt(legal.size()));
+        model.move(chosen.getQ(), chosen.getR());
+      }
+      positions.add(model);
+    }
+    return positions;
+  }
+}
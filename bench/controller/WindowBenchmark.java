@@ -0,0 +1,78 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.ReversiModel;
+
+/**
+ * WindowBenchmark compares the number of positions AlphaBetaStrategy visits to reach the same
+ * depth with every SearchWindow, on boards of size 6 and 8, with and without the bundled pattern
+ * weights.
+ * The positions are a fixed suite: for every size, the positions after 6, 8, ... 20 random moves
+ * of a game played from a fixed seed, each searched once with a fresh TranspositionTable and a
+ * single thread, so every run prints the same numbers. It prints the positions visited with every
+ * window, how they compare to FULL and how often the aspiration window failed.
+ * This is a plain main method rather than a test so that it never slows the test suite down.
+ */
+public final class WindowBenchmark {
+  private static final int[] SIZES = {6, 8};
+  private static final int[] DEPTHS = {10, 8}; // the depth searched on the board of each size
+  private static final int POSITIONS = 8;
+  private static final int TABLE_MEGABYTES = 16;
+
+  private WindowBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints the positions visited with every window.
+   */
+  public static void main(String[] args) {
+    System.out.println("size  depth  patterns  window               nodes  vs FULL  researches");
+    for (int s = 0; s < SIZES.length; s++) {
+      List<ReversiModel> positions = suite(SIZES[s]);
+      for (boolean patterns : new boolean[] {false, true}) {
+        PatternWeights weights = patterns ? PatternWeights.forBoardSize(SIZES[s]) : null;
+        long full = 0;
+        for (SearchWindow window : SearchWindow.values()) {
+          long nodes = 0;
+          int researches = 0;
+          for (ReversiModel position : positions) {
+            AlphaBetaStrategy search = AlphaBetaStrategy.builder(Integer.MAX_VALUE)
+                    .maxDepth(DEPTHS[s]).table(new TranspositionTable(TABLE_MEGABYTES))
+                    .weights(weights).window(window).build();
+            search.decideMove(position);
+            nodes += search.getLastNodes();
+            researches += search.getLastResearches();
+          }
+          if (window == SearchWindow.FULL) {
+            full = nodes;
+          }
+          System.out.printf("%4d  %5d  %8s  %-19s  %9d  %6.1f%%  %10d%n", SIZES[s], DEPTHS[s],
+                  patterns, window, nodes, 100.0 * nodes / full, researches);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns POSITIONS models of the given size, after 6, 8, ... random moves of one game.
+   */
+  private static List<ReversiModel> suite(int size) {
+    Random random = new Random(size);
+    List<ReversiModel> positions = new ArrayList<>();
+    for (int p = 0; p < POSITIONS; p++) {
+      ReversiModel model = new BasicReversi(size);
+      for (int move = 0; move < 6 + 2 * p; move++) {
+        List<Coordinate> legal = model.getAllMoves();
+        Coordinate chosen = legal.get(random.nextInt(legal.size()));
+        model.move(chosen.getQ(), chosen.getR());
+      }
+      positions.add(model);
+    }
+    return positions;
+  }
+}
@@ -0,0 +1,65 @@
+package model;
+
+/**
+ * FlipBenchmark times the flip engine behind move() on boards of size 6, 12 and 24.
+ * For every size, it lays a run of WHITE discs closed off by a BLACK disc along the middle row,
+ * and times BLACK playing the empty cell at the start of the run. Lengthening the run shows the
+ * cost of a move growing with the number of flipped discs, while growing the board with the same
+ * run length shows that the cost does not depend on the size of the board.
+ * This is a plain main method rather than a test so that it never slows the test suite down.
+ */
+public final class FlipBenchmark {
+  private static final int[] SIZES = {6, 12, 24};
+  private static final int[] RUNS = {1, 2, 4, 8};
+  private static final int REPETITIONS = 2_000_000;
+
+  private FlipBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints the average time of one flip per board size and run length.
+   */
+  public static void main(String[] args) {
+    System.out.println("size  flipped  ns/move");
+    for (int round = 0; round < 2; round++) { // the first round only warms up the JIT
+      for (int size : SIZES) {
+        for (int run : RUNS) {
+          if (run > 2 * size - 3) {
+            continue;
+          }
+          long nanos = time(size, run);
+          if (round == 1) {
+            System.out.printf("%4d  %7d  %7.1f%n", size, run, (double) nanos / REPETITIONS);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Times REPETITIONS moves flipping a run of the given length on a board of the given size,
+   * putting the flipped discs back after every move.
+   */
+  private static long time(int size, int run) {
+    BitboardReversi model = new BitboardReversi(size);
+    HexGeometry geometry = HexGeometry.of(size);
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      model.setCell(index, Cell.EMPTY);
+    }
+    int target = geometry.indexOf(-size + 1, 0);
+    for (int step = 0; step < run; step++) {
+      model.setCell(geometry.rayCell(target, HexGeometry.R_RIGHT, step), Cell.WHITE);
+    }
+    model.setCell(geometry.rayCell(target, HexGeometry.R_RIGHT, run), Cell.BLACK);
+
+    int[] flipped = new int[model.maxFlips()];
+    long start = System.nanoTime();
+    for (int i = 0; i < REPETITIONS; i++) {
+      int count = model.flip(target, Cell.BLACK, flipped);
+      for (int j = 0; j < count; j++) {
+        model.setCell(flipped[j], Cell.WHITE);
+      }
+    }
+    return System.nanoTime() - start;
+  }
+}
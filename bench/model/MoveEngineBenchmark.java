@@ -0,0 +1,129 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * MoveEngineBenchmark compares the RAY_WALK and LINE_TABLE engines of BasicReversi on boards of
+ * size 4, 6 and 8.
+ * For every size it records the same random games once, then times two things with each engine:
+ * replaying every game with makeMove() and taking it back with unmakeMove(), which includes
+ * keeping the legal moves up to date, and asking flipCount() for every cell of every position,
+ * which is how the strategies look at a position.
+ * This is a plain main method rather than a test so that it never slows the test suite down.
+ */
+public final class MoveEngineBenchmark {
+  private static final int[] SIZES = {4, 6, 8};
+  private static final int GAMES = 200;
+  private static final int REPETITIONS = 20;
+
+  private MoveEngineBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark and prints the average time of one made and unmade move, and of one
+   * flipCount call, per board size and engine.
+   */
+  public static void main(String[] args) {
+    System.out.println("size  engine      make+unmake ns  flipCount ns");
+    for (int round = 0; round < 2; round++) { // the first round only warms up the JIT
+      for (int size : SIZES) {
+        List<int[]> games = record(size);
+        for (MoveEngine engine : MoveEngine.values()) {
+          double play = timePlay(size, engine, games);
+          double count = timeFlipCount(size, engine, games);
+          if (round == 1) {
+            System.out.printf("%4d  %-10s  %14.1f  %12.1f%n", size, engine, play, count);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Plays GAMES random games on a board of the given size and records the index of every move,
+   * with -1 for a pass.
+   */
+  private static List<int[]> record(int size) {
+    HexGeometry geometry = HexGeometry.of(size);
+    Random random = new Random(size);
+    List<int[]> games = new ArrayList<>();
+    for (int game = 0; game < GAMES; game++) {
+      BasicReversi model = new BasicReversi(size, new ReversiStatus(), MoveEngine.RAY_WALK);
+      List<Integer> moves = new ArrayList<>();
+      while (!model.isGameOver()) {
+        List<Coordinate> legal = model.getAllMoves();
+        if (legal.isEmpty()) {
+          model.makePass();
+          moves.add(-1);
+        } else {
+          Coordinate move = legal.get(random.nextInt(legal.size()));
+          model.makeMove(move.getQ(), move.getR());
+          moves.add(geometry.indexOf(move.getQ(), move.getR()));
+        }
+      }
+      games.add(moves.stream().mapToInt(Integer::intValue).toArray());
+    }
+    return games;
+  }
+
+  /**
+   * Returns the average time in nanoseconds of making and unmaking one move of the given games.
+   */
+  private static double timePlay(int size, MoveEngine engine, List<int[]> games) {
+    HexGeometry geometry = HexGeometry.of(size);
+    BasicReversi model = new BasicReversi(size, new ReversiStatus(), engine);
+    MoveDelta[] deltas = new MoveDelta[geometry.cellCount() * 2];
+    long moves = 0;
+    long start = System.nanoTime();
+    for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+      for (int[] game : games) {
+        for (int i = 0; i < game.length; i++) {
+          deltas[i] = game[i] < 0 ? model.makePass()
+                  : model.makeMove(geometry.qOf(game[i]), geometry.rOf(game[i]));
+        }
+        for (int i = game.length - 1; i >= 0; i--) {
+          model.unmakeMove(deltas[i]);
+        }
+        moves += game.length;
+      }
+    }
+    return (double) (System.nanoTime() - start) / moves;
+  }
+
+  /**
+   * Returns the average time in nanoseconds of one flipCount() call for the player to move, over
+   * every cell of every position of the given games.
+   */
+  private static double timeFlipCount(int size, MoveEngine engine, List<int[]> games) {
+    HexGeometry geometry = HexGeometry.of(size);
+    BasicReversi model = new BasicReversi(size, new ReversiStatus(), engine);
+    MoveDelta[] deltas = new MoveDelta[geometry.cellCount() * 2];
+    long calls = 0;
+    long total = 0;
+    long checksum = 0;
+    for (int repetition = 0; repetition < REPETITIONS / 4; repetition++) {
+      for (int[] game : games) {
+        for (int i = 0; i < game.length; i++) {
+          long start = System.nanoTime();
+          for (int index = 0; index < geometry.cellCount(); index++) {
+            checksum += model.flipCount(geometry.qOf(index), geometry.rOf(index),
+                    model.getColor());
+          }
+          total += System.nanoTime() - start;
+          calls += geometry.cellCount();
+          deltas[i] = game[i] < 0 ? model.makePass()
+                  : model.makeMove(geometry.qOf(game[i]), geometry.rOf(game[i]));
+        }
+        for (int i = game.length - 1; i >= 0; i--) {
+          model.unmakeMove(deltas[i]);
+        }
+      }
+    }
+    if (checksum == 42) { // keeps the JIT from dropping the calls
+      System.out.print("");
+    }
+    return (double) total / calls;
+  }
+}
@@ -1,9 +1,11 @@
 import controller.Controller;
 import controller.ControllerListener;
 import model.BasicReversi;
+import model.BitboardReversi;
 import model.HumanPlayer;
 import model.ModelStatus;
 import model.Player;
+import model.ReversiModel;
 import model.ReversiStatus;
 import view.BasicReversiView;
 
@@ -13,10 +15,17 @@ import view.BasicReversiView;
 public final class Reversi {
   /**
    * This is to run the code.
+   * Passing "bitboard" as the first argument plays the game on a BitboardReversi model instead
+   * of a BasicReversi model.
    */
   public static void main(String[] args) {
     ModelStatus status = new ReversiStatus();
-    BasicReversi model = new BasicReversi(6, status);
+    ReversiModel model;
+    if (args.length > 0 && args[0].equals("bitboard")) {
+      model = new BitboardReversi(6, status);
+    } else {
+      model = new BasicReversi(6, status);
+    }
     Player humanPlayer1 = new HumanPlayer();
     BasicReversiView view = new BasicReversiView(model);
     Player humanPlayer2 = new HumanPlayer();
@@ -3,8 +3,9 @@ package controller;
 import java.util.HashMap;
 import java.util.Map;
 
-import model.Cell;
 import model.Coordinate;
+import model.HexGeometry;
+import model.PlayColor;
 import model.ReversiModel;
 
 /**
@@ -27,22 +28,16 @@ public class AdvoidCorners implements ReversiStrategies {
   public Coordinate decideMove(ReversiModel model) {
     // represents the scores of all the moves
     Map<Coordinate, Integer> scores = new HashMap<Coordinate, Integer>();
-    Map<Coordinate, Cell> temp_board = model.getCopyBoard();
     // represents the optimal move. currently stores as the midmove.
-    Coordinate optimal = new Coordinate(0, 0);
+    Coordinate optimal = HexGeometry.of(model.getBoardSize()).coordinateOf(0, 0);
     // represents scores not next to corners.
     Map<Coordinate, Integer> scores_non_corners = new HashMap<Coordinate, Integer>();
-    ReversiModel temp = model;
+    PlayColor color = model.getColor();
 
-    // initialize the scores hashmap in order to procede.
-    for (Coordinate c: temp_board.keySet()) {
-      // CHECK IF THE MOVE IS VALID BEFORE PROCEDING.
-      if (model.validMoveLogic(c.getQ(), c.getR(), model.getColor())) {
-        int score_before = 0;
-        temp.move(c.getQ(), c.getR());
-        score_before = temp.getScore(model.getColor());
-        scores.put(c, score_before);
-      }
+    // initialize the scores hashmap in order to procede, using only the valid moves.
+    for (Coordinate c: model.getAllMoves()) {
+      // the score after the move is the current score, the placed disc and every flipped disc.
+      scores.put(c, model.getScore(color) + 1 + model.flipCount(c.getQ(), c.getR(), color));
     }
 
     for (Coordinate c: scores.keySet()) {
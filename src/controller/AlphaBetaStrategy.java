@@ -0,0 +1,1094 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.BasicReversi;
+import model.BoardSnapshot;
+import model.Cell;
+import model.Coordinate;
+import model.HexGeometry;
+import model.MoveDelta;
+import model.PlayColor;
+import model.ReversiModel;
+
+/**
+ * This Function Object represents a strategy that looks ahead:
+ * it searches the game tree with negamax and alpha-beta pruning, one depth after the other
+ * (iterative deepening), until its time budget for the move runs out, and plays the best move
+ * found by the deepest search that finished. Root moves are searched in the order of the previous
+ * depth's result, best first, so every depth prunes more than the last, and the moves of every
+ * other position in the order of a MoveOrdering, which by default tries the remembered best move,
+ * then the killer moves of the ply, then the rest by their history. How well the order works
+ * shows in how many of the cutoffs the first move tried caused.
+ * With a TranspositionTable, the search is by default a principal variation search with
+ * aspiration windows, as SearchWindow describes: every move after the first is only proven worse
+ * with a null window, and every depth starts with a narrow window around the value of an earlier
+ * depth. Without one it searches FULL windows by default, since every search again of a move
+ * would repeat all of its work. The principal variation, the line of play the deepest search
+ * expects, can be read after every move.
+ * The search never touches the model it is given: it continues the latest published position on
+ * a private BasicReversi built from the model's snapshot, and plays ahead on that copy with
+ * makeMove() and unmakeMove().
+ * Positions at the end of the search are scored for the player to move by the difference in
+ * discs, legal moves and corners, corners being the six cells no move can ever flip back, or, if
+ * the strategy is given PatternWeights, by a pattern evaluation that the search keeps up to date
+ * move by move.
+ * Finished games are scored above any unfinished position, by their final disc difference.
+ * The strategy can share a TranspositionTable with other searches. Positions found in it are not
+ * searched again if they were searched deep enough, and the best move it remembers for a position
+ * is searched first. A position whose whole subtree reached the end of the game is stored as
+ * searched to the deepest depth, since searching it deeper would change nothing.
+ * The strategy can prune selectively the ProbCut way, as withProbCut() describes: before
+ * searching a position deep, it searches it shallow, and if a calibrated regression of deep on
+ * shallow values says the deep search would almost surely fail high or low, it cuts the position
+ * at once, so the time saved goes to searching deeper.
+ * With more than one thread, the strategy searches in parallel the Lazy SMP way: helper threads
+ * of the pool of SearchThreads run the same iterative deepening on their own copies of the position, one
+ * depth ahead every other thread and with the root moves in another order, and share their
+ * results through the TranspositionTable. The move of whichever thread finished the deepest
+ * search is played, the calling thread winning ties.
+ * The strategy can also ponder: while the opponent thinks, a background thread guesses the
+ * opponent's reply with a shallow search and searches the position that reply leads to. If the
+ * opponent plays the guessed reply, decideMove() keeps that search running until its time budget,
+ * counted from when pondering started, runs out, so a move that took the opponent longer than the
+ * budget is answered at once. Otherwise the pondering is cancelled, and the positions it stored in
+ * the TranspositionTable, if there is one, still speed up the search that follows.
+ * A strategy that needs more than a time budget and a depth limit is set up with builder().
+ */
+public class AlphaBetaStrategy implements ReversiStrategies {
+  static final int WIN = 1_000_000; // added to the disc difference of a won game
+  private static final int MOBILITY_WEIGHT = 3; // the worth of one more legal move than the other
+  private static final int CORNER_WEIGHT = 10; // the worth of one more corner than the other
+  private static final int CHECK_INTERVAL = 1023; // nodes between looks at the clock, minus one
+  // the history of a cell above which the history of every cell is halved
+  private static final int HISTORY_LIMIT = 1 << 24;
+  // the least remaining depth at which moves are played to order them
+  private static final int PLAY_AHEAD_DEPTH = 2;
+  // the half width of the first aspiration window, in discs
+  private static final int ASPIRATION_DISCS = 1;
+  // the half width, in discs, beyond which a failed aspiration window is dropped for a full one
+  private static final int ASPIRATION_LIMIT = 64;
+  // the depth of the search that guesses the opponent's reply while pondering
+  private static final int GUESS_DEPTH = 4;
+  // the depth stored for positions whose whole subtree reached the end of the game
+  private static final int SOLVED = TranspositionTable.MAX_DEPTH;
+  private static final int PASS = -1; // a pass in a principal variation
+  private static final int NO_CUT = Integer.MIN_VALUE; // what probCut() returns without a cut
+
+  private final long budgetNanos; // the time one decideMove() may take
+  private final int maxDepth; // the deepest search that is started
+  private final TranspositionTable table; // what earlier searches learned, or null
+  private final int threads; // the number of threads searching every move
+  private final MoveOrdering ordering; // the order the moves below the root are tried in
+  private final PatternWeights weights; // the weights of the pattern evaluation, or null
+  private final SearchWindow window; // the windows the moves are searched with
+  // the standard deviations a shallow search must clear to cut, infinite without ProbCut
+  private final double confidence;
+  private Ponder pondering; // the running pondering, or null
+  private boolean lastPonderHit; // whether the latest decided move was found while pondering
+  private int lastDepth; // the depth of the search behind the latest decided move
+  private List<Coordinate> lastLine = Collections.emptyList(); // its principal variation
+  private int lastResearches; // the depths it searched again after the aspiration window failed
+  private long lastProbCuts; // the positions all threads cut selectively for it
+  private int[] lastValues = new int[0]; // the value of every depth the main search finished
+  private long lastNodes; // the positions all threads visited for the latest decided move
+  private long lastCutoffs; // the cutoffs all threads made for the latest decided move
+  private long lastFirstCutoffs; // those of them made by the first move tried
+
+  /**
+   * Constructs an AlphaBetaStrategy that may think for the given number of milliseconds on
+   * every move, searching as deep as that time allows.
+   *
+   * @param budgetMillis the time budget of every move, in milliseconds
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public AlphaBetaStrategy(long budgetMillis) {
+    this(builder(budgetMillis));
+  }
+
+  /**
+   * Constructs an AlphaBetaStrategy that may think for the given number of milliseconds on
+   * every move, but never searches deeper than the given number of plies.
+   *
+   * @param budgetMillis the time budget of every move, in milliseconds
+   * @param maxDepth     the deepest search to start, in plies
+   * @throws IllegalArgumentException if the budget or the depth is not positive
+   */
+  public AlphaBetaStrategy(long budgetMillis, int maxDepth) {
+    this(builder(budgetMillis).maxDepth(maxDepth));
+  }
+
+  /**
+   * Returns a Builder of AlphaBetaStrategy objects that may think for the given number of
+   * milliseconds on every move. Everything else starts out as (budgetMillis) sets it, and can be
+   * changed on the Builder before build().
+   *
+   * @param budgetMillis the time budget of every move, in milliseconds
+   * @return the Builder
+   */
+  public static Builder builder(long budgetMillis) {
+    return new Builder(budgetMillis);
+  }
+
+  private AlphaBetaStrategy(Builder builder) {
+    if (builder.threads <= 0) {
+      throw new IllegalArgumentException("thread count must be positive");
+    }
+    if (builder.threads > 1 && builder.table == null) {
+      throw new IllegalArgumentException("parallel search needs a transposition table");
+    }
+    if (builder.budgetMillis <= 0) {
+      throw new IllegalArgumentException("time budget must be positive");
+    }
+    if (builder.maxDepth <= 0) {
+      throw new IllegalArgumentException("search depth must be positive");
+    }
+    if (!(builder.confidence >= 0)) {
+      throw new IllegalArgumentException("confidence must not be negative");
+    }
+    this.budgetNanos = builder.budgetMillis * 1_000_000L;
+    this.maxDepth = builder.maxDepth;
+    this.table = builder.table;
+    this.threads = builder.threads;
+    this.ordering = builder.ordering;
+    this.weights = builder.weights;
+    if (builder.window != null) {
+      this.window = builder.window;
+    } else {
+      this.window = table == null ? SearchWindow.FULL : SearchWindow.ASPIRATION;
+    }
+    this.confidence = builder.confidence;
+  }
+
+  /**
+   * Returns the best move for the player to move in the latest published position of the given
+   * model, or null if that player has no legal move and must pass.
+   *
+   * @throws IllegalArgumentException if the strategy has pattern weights for another board size
+   */
+  @Override
+  public Coordinate decideMove(ReversiModel model) {
+    BoardSnapshot position = model.snapshot();
+    ArrayList<Coordinate> moves = position.getAllMoves();
+    Ponder ponder = pondering;
+    this.pondering = null;
+    this.lastPonderHit = false;
+    this.lastDepth = 0;
+    this.lastLine = Collections.emptyList();
+    this.lastResearches = 0;
+    this.lastProbCuts = 0;
+    this.lastValues = new int[0];
+    this.lastNodes = 0;
+    this.lastCutoffs = 0;
+    this.lastFirstCutoffs = 0;
+    if (ponder != null) {
+      Search pondered = ponder.search;
+      if (pondered != null && ponder.expectedHash == position.getPositionHash()) {
+        // the guess was right: the pondering search goes on until the budget runs out
+        pondered.deadline = ponder.searchStart + budgetNanos;
+        ponder.task.join();
+        if (pondered.completedDepth > 0) {
+          this.lastPonderHit = true;
+          this.lastDepth = pondered.completedDepth;
+          this.lastLine = pondered.line;
+          this.lastResearches = pondered.researches;
+          this.lastProbCuts = pondered.probCuts;
+          this.lastNodes = pondered.nodes;
+          this.lastCutoffs = pondered.cutoffs;
+          this.lastFirstCutoffs = pondered.firstCutoffs;
+          return pondered.best;
+        }
+      } else {
+        ponder.cancel();
+      }
+    }
+    if (position.isGameOver() || moves.isEmpty()) {
+      return null;
+    }
+    if (moves.size() == 1) {
+      this.lastLine = Collections.singletonList(moves.get(0));
+      return moves.get(0);
+    }
+    if (weights != null && weights.getBoardSize() != position.getBoardSize()) {
+      throw new IllegalArgumentException("pattern weights are for another board size");
+    }
+    if (table != null) {
+      table.newSearch();
+    }
+    ProbCut cuts = probCutFor(position.getBoardSize());
+    long deadline = System.nanoTime() + budgetNanos;
+    AtomicBoolean stop = new AtomicBoolean(); // tells the helpers the move is decided
+    Search main = new Search(new BasicReversi(position), deadline, table, stop, ordering,
+            weights, window, cuts, confidence);
+    List<Search> searches = new ArrayList<>();
+    List<ForkJoinTask<?>> running = new ArrayList<>();
+    searches.add(main);
+    for (int i = 1; i < threads; i++) {
+      Search helper = new Search(new BasicReversi(position), deadline, table, stop,
+              ordering, weights, window, cuts, confidence);
+      ArrayList<Coordinate> order = new ArrayList<>(moves);
+      Collections.rotate(order, -i);
+      int firstDepth = 1 + i % 2;
+      searches.add(helper);
+      running.add(SearchThreads.pool().submit(() -> helper.iterate(order, firstDepth, maxDepth)));
+    }
+    main.iterate(moves, 1, maxDepth);
+    stop.set(true);
+    for (ForkJoinTask<?> task : running) {
+      task.join();
+    }
+
+    Search deepest = main;
+    long nodes = 0;
+    for (Search search : searches) {
+      nodes += search.nodes;
+      this.lastResearches += search.researches;
+      this.lastProbCuts += search.probCuts;
+      this.lastCutoffs += search.cutoffs;
+      this.lastFirstCutoffs += search.firstCutoffs;
+      if (search.completedDepth > deepest.completedDepth) {
+        deepest = search;
+      }
+    }
+    this.lastDepth = deepest.completedDepth;
+    this.lastLine = deepest.line;
+    this.lastValues = Arrays.copyOf(main.values, main.completedDepth + 1);
+    this.lastNodes = nodes;
+    return deepest.completedDepth == 0 ? moves.get(0) : deepest.best;
+  }
+
+  /**
+   * Returns a strategy that searches like this one, sharing its TranspositionTable, but prunes
+   * selectively the ProbCut way: before searching a position at
+   * least ProbCut.MIN_DEPTH deep, it searches it to the calibrated shallow depth with a null
+   * window, and cuts it if the value of the deep search, as the calibration predicts it from the
+   * shallow value, is beyond beta, or below alpha, by at least the given number of standard
+   * deviations. The smaller the confidence, the more is pruned, the deeper the search gets and
+   * the more often it prunes a move it should have searched; around 1.5 is a common choice.
+   * The calibration is the one bundled for the board size and the evaluation of the strategy, as
+   * ProbCut.forEvaluation() loads it. On boards without one, the strategy does not prune
+   * selectively.
+   *
+   * @param confidence the standard deviations a shallow search must clear to cut a position
+   * @return the selective strategy
+   * @throws IllegalArgumentException if the confidence is negative or NaN
+   */
+  @Override
+  public AlphaBetaStrategy withProbCut(double confidence) {
+    return builder(budgetNanos / 1_000_000L).maxDepth(maxDepth).table(table).threads(threads)
+            .ordering(ordering).weights(weights).window(window).probCut(confidence).build();
+  }
+
+  /**
+   * Returns the calibration to prune selectively with on boards of the given size, or null if
+   * the strategy does not prune selectively on them.
+   */
+  private ProbCut probCutFor(int boardSize) {
+    if (confidence == Double.POSITIVE_INFINITY) {
+      return null;
+    }
+    return ProbCut.bundled(boardSize, weights != null);
+  }
+
+  /**
+   * Starts pondering the position of the given model, in which the opponent is to move, in the
+   * background, cancelling any earlier pondering of another position. Pondering the position
+   * already being pondered lets that pondering go on. The model is only read once, here.
+   *
+   * @throws IllegalArgumentException if the strategy has pattern weights for another board size
+   */
+  @Override
+  public void ponder(ReversiModel model) {
+    BoardSnapshot position = model.snapshot();
+    if (pondering != null && pondering.position == position) {
+      return; // the same published position, so the search so far is not thrown away
+    }
+    stopPondering();
+    if (position.isGameOver()) {
+      return;
+    }
+    if (weights != null && weights.getBoardSize() != position.getBoardSize()) {
+      throw new IllegalArgumentException("pattern weights are for another board size");
+    }
+    if (table != null) {
+      table.newSearch();
+    }
+    Ponder ponder = new Ponder(position, probCutFor(position.getBoardSize()));
+    ponder.task = SearchThreads.pool().submit(ponder::run);
+    this.pondering = ponder;
+  }
+
+  /**
+   * Cancels the running pondering, if any, and waits for its thread to give up.
+   */
+  @Override
+  public void stopPondering() {
+    if (pondering != null) {
+      pondering.cancel();
+      this.pondering = null;
+    }
+  }
+
+  /**
+   * Returns whether the move the latest decideMove() returned was found by pondering, because
+   * the opponent played the reply the strategy guessed.
+   */
+  public boolean isLastPonderHit() {
+    return lastPonderHit;
+  }
+
+  /**
+   * Returns the depth of the deepest finished search behind the move the latest decideMove()
+   * returned, which is 0 if there was no choice to make.
+   */
+  public int getLastDepth() {
+    return lastDepth;
+  }
+
+  /**
+   * Returns the principal variation of the deepest finished search behind the move the latest
+   * decideMove() returned: the move itself, then the replies both players are expected to make,
+   * null standing for a pass. The line ends early where the rest came from the
+   * TranspositionTable or the game ends, and is empty if there was no move to make.
+   */
+  public List<Coordinate> getLastPrincipalVariation() {
+    return lastLine;
+  }
+
+  /**
+   * Returns how many times all threads together searched a depth again for the move the latest
+   * decideMove() returned, because its value fell outside the aspiration window.
+   */
+  public int getLastResearches() {
+    return lastResearches;
+  }
+
+  /**
+   * Returns the number of positions all threads together cut selectively for the move the
+   * latest decideMove() returned, as withProbCut() describes.
+   */
+  public long getLastProbCuts() {
+    return lastProbCuts;
+  }
+
+  /**
+   * Returns the value, for the player to move, of every depth the calling thread finished for
+   * the latest decideMove(), by depth, with index 0 unused.
+   */
+  int[] getLastValues() {
+    return lastValues;
+  }
+
+  /**
+   * Returns the number of positions all threads together visited for the move the latest
+   * decideMove() returned.
+   */
+  public long getLastNodes() {
+    return lastNodes;
+  }
+
+  /**
+   * Returns the number of positions all threads together stopped searching early for the move
+   * the latest decideMove() returned, because a move was found that the opponent would never
+   * allow.
+   */
+  public long getLastCutoffs() {
+    return lastCutoffs;
+  }
+
+  /**
+   * Returns the share of the cutoffs of the latest decideMove() that the first move tried in
+   * the position caused, from 0 to 1. The closer it is to 1, the better the moves were ordered.
+   */
+  public double getLastFirstMoveCutoffRate() {
+    return lastCutoffs == 0 ? 0 : (double) lastFirstCutoffs / lastCutoffs;
+  }
+
+  /**
+   * Builder collects the settings of an AlphaBetaStrategy. Every setting it is not given keeps
+   * its default: no depth limit, no TranspositionTable, a single thread, KILLER_HISTORY
+   * ordering, the evaluation by discs, legal moves and corners, no selective pruning, and
+   * ASPIRATION windows with a table or FULL windows without one. The settings are checked by
+   * build().
+   */
+  public static final class Builder {
+    private final long budgetMillis;
+    private int maxDepth = Integer.MAX_VALUE;
+    private TranspositionTable table;
+    private int threads = 1;
+    private MoveOrdering ordering = MoveOrdering.KILLER_HISTORY;
+    private PatternWeights weights;
+    private SearchWindow window; // null for the default of the table
+    private double confidence = Double.POSITIVE_INFINITY;
+
+    private Builder(long budgetMillis) {
+      this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Never searches deeper than the given number of plies.
+     *
+     * @param maxDepth the deepest search to start, in plies
+     * @return this Builder
+     */
+    public Builder maxDepth(int maxDepth) {
+      this.maxDepth = maxDepth;
+      return this;
+    }
+
+    /**
+     * Remembers positions in the given TranspositionTable, which other searches may share.
+     *
+     * @param table the TranspositionTable to use, or null to search without one
+     * @return this Builder
+     */
+    public Builder table(TranspositionTable table) {
+      this.table = table;
+      return this;
+    }
+
+    /**
+     * Searches every move with the given number of threads, which share the TranspositionTable.
+     * The calling thread is one of them, and the others are workers of the pool every search
+     * shares, as SearchThreads describes.
+     *
+     * @param threads the number of threads to search with, more than one needing a table
+     * @return this Builder
+     */
+    public Builder threads(int threads) {
+      this.threads = threads;
+      return this;
+    }
+
+    /**
+     * Tries the moves below the root in the given order.
+     *
+     * @param ordering the order to try moves in
+     * @return this Builder
+     * @throws IllegalArgumentException if the ordering is null
+     */
+    public Builder ordering(MoveOrdering ordering) {
+      if (ordering == null) {
+        throw new IllegalArgumentException("move ordering cannot be null");
+      }
+      this.ordering = ordering;
+      return this;
+    }
+
+    /**
+     * Scores the positions at the end of the search with the given pattern weights.
+     *
+     * @param weights the weights of the pattern evaluation, or null to score positions by
+     *                discs, legal moves and corners
+     * @return this Builder
+     */
+    public Builder weights(PatternWeights weights) {
+      this.weights = weights;
+      return this;
+    }
+
+    /**
+     * Searches moves with the given windows, whether or not there is a table.
+     *
+     * @param window the windows to search moves with
+     * @return this Builder
+     * @throws IllegalArgumentException if the window is null
+     */
+    public Builder window(SearchWindow window) {
+      if (window == null) {
+        throw new IllegalArgumentException("search window cannot be null");
+      }
+      this.window = window;
+      return this;
+    }
+
+    /**
+     * Prunes selectively the ProbCut way with the given confidence, as withProbCut() describes.
+     *
+     * @param confidence the standard deviations a shallow search must clear to cut a position
+     * @return this Builder
+     */
+    public Builder probCut(double confidence) {
+      this.confidence = confidence;
+      return this;
+    }
+
+    /**
+     * Returns a new AlphaBetaStrategy with the settings of this Builder.
+     *
+     * @return the strategy
+     * @throws IllegalArgumentException if the budget, the depth or the thread count is not
+     *                                  positive, if several threads are given no table or if
+     *                                  the confidence is negative or NaN
+     */
+    public AlphaBetaStrategy build() {
+      return new AlphaBetaStrategy(this);
+    }
+  }
+
+  /**
+   * Ponder is one pondering: the guess of the opponent's reply and the search of the position
+   * it leads to, run by the pondering thread until it is cancelled or its deadline is set.
+   */
+  private final class Ponder {
+    private final BoardSnapshot position; // the position the opponent is to move in
+    private final ProbCut cuts; // the calibration to prune selectively with, or null
+    private final AtomicBoolean stop = new AtomicBoolean(); // set to cancel the pondering
+    private ForkJoinTask<?> task; // the pondering running on the pondering thread
+    private volatile long expectedHash; // the hash of the position after the guessed reply
+    private volatile long searchStart; // the System.nanoTime() at which the search started
+    private volatile Search search; // the search of that position, once it started
+
+    Ponder(BoardSnapshot position, ProbCut cuts) {
+      this.position = position;
+      this.cuts = cuts;
+    }
+
+    /**
+     * Guesses the reply and searches the position after it until stopped.
+     */
+    void run() {
+      // no deadline until the opponent's move arrives
+      long never = System.nanoTime() + Long.MAX_VALUE / 4;
+      ArrayList<Coordinate> replies = position.getAllMoves();
+      BasicReversi guessed = new BasicReversi(position);
+      if (replies.isEmpty()) {
+        guessed.pass();
+      } else {
+        Coordinate reply = replies.get(0);
+        if (replies.size() > 1) {
+          Search guess = new Search(new BasicReversi(position), never, table, stop, ordering,
+                  weights, window, cuts, confidence);
+          guess.iterate(replies, 1, Math.min(GUESS_DEPTH, maxDepth));
+          if (stop.get()) {
+            return;
+          }
+          reply = guess.best;
+        }
+        guessed.move(reply.getQ(), reply.getR());
+      }
+      BoardSnapshot expected = guessed.snapshot();
+      ArrayList<Coordinate> moves = expected.getAllMoves();
+      if (expected.isGameOver() || moves.size() < 2) {
+        return; // nothing to think about
+      }
+      Search pondered = new Search(new BasicReversi(expected), never, table, stop, ordering,
+              weights, window, cuts, confidence);
+      this.expectedHash = expected.getPositionHash();
+      this.searchStart = System.nanoTime();
+      this.search = pondered;
+      pondered.iterate(moves, 1, maxDepth);
+    }
+
+    /**
+     * Stops the pondering and waits for the pondering thread to give up.
+     */
+    void cancel() {
+      stop.set(true);
+      task.join();
+    }
+  }
+
+  /**
+   * Search holds the state of one thread of one decideMove(): the private copy of the position,
+   * the deadline, what the latest depth ran into and what the move ordering learned so far.
+   */
+  private static final class Search {
+    private final ReversiModel board; // the private copy that moves are tried on
+    // the System.nanoTime() at which the search gives up, moved while pondering
+    private volatile long deadline;
+    private final AtomicBoolean stop; // set once the move is decided, whatever the time
+    private final TranspositionTable table; // what earlier searches learned, or null
+    private final HexGeometry geometry; // the cell indices of the board
+    private final Coordinate[] corners; // the six corners of the board
+    private final MoveOrdering ordering; // the order the moves below the root are tried in
+    private final PatternEvaluator patterns; // the pattern evaluation of the board, or null
+    private final SearchWindow window; // the windows the moves are searched with
+    private final int aspiration; // the half width of the first aspiration window
+    private final int aspirationLimit; // the half width beyond which a full window is used
+    private final ProbCut cuts; // the calibration to prune selectively with, or null
+    private final double confidence; // the standard deviations a shallow search must clear
+    private final int[] values; // the value of every finished depth, by depth
+    private final int[][] killers; // the two latest moves that caused a cutoff at every ply
+    private final int[] history; // how much every cell caused cutoffs, weighted by depth
+    private final int[][] moveLists; // the moves of the position at every ply, in search order
+    private final long[][] moveKeys; // the sort key of every move in moveLists
+    private final int[] legalMoves; // the legal moves order() reads from the board, unsorted
+    // the principal variation from every ply, as cell indices or PASS, from that ply on
+    private final int[][] lines;
+    private final int[] lineEnds; // the ply every line of lines ends before
+    private long nodes; // the positions visited so far
+    private long cutoffs; // the positions left early because a move refuted them
+    private long firstCutoffs; // the cutoffs caused by the first move tried
+    private Coordinate best; // the best move of the deepest finished depth
+    private int completedDepth; // the deepest finished depth
+    private int value; // the value of the deepest finished depth for the player to move
+    private int earlierValue; // the value of the depth finished before it
+    private int finishedDepths; // the number of depths finished
+    private List<Coordinate> line = Collections.emptyList(); // its principal variation
+    private int researches; // the depths searched again because the aspiration window failed
+    private long probCuts; // the positions cut selectively
+    private boolean timeUp; // whether the deadline passed, making the running depth worthless
+    private boolean horizon; // whether the running depth stopped anywhere before the game ended
+    private int rootValue; // the value of the best root move of the latest root()
+
+    Search(ReversiModel board, long deadline, TranspositionTable table, AtomicBoolean stop,
+           MoveOrdering ordering, PatternWeights weights, SearchWindow window, ProbCut cuts,
+           double confidence) {
+      this.board = board;
+      this.cuts = cuts;
+      this.confidence = confidence;
+      this.ordering = ordering;
+      this.window = window;
+      int disc = weights == null ? 1 : PatternWeights.SCALE; // the value of one disc
+      this.aspiration = ASPIRATION_DISCS * disc;
+      this.aspirationLimit = ASPIRATION_LIMIT * disc;
+      this.patterns = weights == null ? null : new PatternEvaluator(weights);
+      if (patterns != null) {
+        patterns.reset(board);
+      }
+      this.deadline = deadline;
+      this.stop = stop;
+      this.table = table;
+      this.geometry = HexGeometry.of(board.getBoardSize());
+      int edge = board.getBoardSize() - 1;
+      this.corners = new Coordinate[] {
+        geometry.coordinateOf(edge, 0), geometry.coordinateOf(-edge, 0),
+        geometry.coordinateOf(0, edge), geometry.coordinateOf(0, -edge),
+        geometry.coordinateOf(edge, -edge), geometry.coordinateOf(-edge, edge)};
+      // every ply fills a cell or passes, and two passes in a row end the game
+      int plies = 2 * geometry.cellCount() + 3;
+      this.killers = new int[plies][];
+      this.history = new int[geometry.cellCount()];
+      this.moveLists = new int[plies][];
+      this.moveKeys = new long[plies][];
+      this.legalMoves = new int[geometry.cellCount()];
+      this.lines = new int[plies][];
+      this.lineEnds = new int[plies];
+      this.values = new int[plies + 1];
+    }
+
+    /**
+     * Searches the given root moves one depth after the other, from the first depth to the last,
+     * until the time is up, the move is decided or the whole game was searched. The list is
+     * reordered best move first after every finished depth.
+     */
+    void iterate(ArrayList<Coordinate> moves, int firstDepth, int lastDepth) {
+      for (int depth = firstDepth; depth <= lastDepth; depth++) {
+        int alpha = -Integer.MAX_VALUE;
+        int beta = Integer.MAX_VALUE;
+        int width = aspiration;
+        // the value two depths back is the better guess, since searches ending on a move of the
+        // player to move score higher than those ending on a reply; and finished games are worth
+        // too much to guess a window around
+        if (window == SearchWindow.ASPIRATION && finishedDepths >= 2
+                && Math.abs(earlierValue) < WIN / 2) {
+          alpha = earlierValue - width;
+          beta = earlierValue + width;
+        }
+        Coordinate found;
+        int foundValue;
+        while (true) {
+          found = root(moves, depth, alpha, beta);
+          foundValue = rootValue;
+          if (timeUp) {
+            return; // an unfinished depth says nothing about the moves it did not reach
+          }
+          boolean failLow = foundValue <= alpha && alpha != -Integer.MAX_VALUE;
+          boolean failHigh = foundValue >= beta && beta != Integer.MAX_VALUE;
+          if (!failLow && !failHigh) {
+            break;
+          }
+          // search the depth again with the failed side of the window further out
+          researches++;
+          width *= 2;
+          boolean full = width > aspirationLimit;
+          if (failLow) {
+            alpha = full ? -Integer.MAX_VALUE : Math.max(-Integer.MAX_VALUE, foundValue - width);
+          } else {
+            beta = full ? Integer.MAX_VALUE : Math.min(Integer.MAX_VALUE, foundValue + width);
+          }
+        }
+        this.best = found;
+        this.earlierValue = value;
+        this.value = foundValue;
+        this.finishedDepths++;
+        if (depth < values.length) {
+          values[depth] = foundValue;
+        }
+        this.completedDepth = depth;
+        this.line = principalVariation();
+        // search the best move first next time
+        moves.remove(found);
+        moves.add(0, found);
+        if (!horizon) {
+          return; // every line reached the end of the game, so deeper searches change nothing
+        }
+      }
+    }
+
+    /**
+     * Searches every root move to the given depth with the given window and returns the best
+     * one, leaving its value in rootValue and its principal variation in the line of ply 0.
+     */
+    Coordinate root(ArrayList<Coordinate> moves, int depth, int alpha, int beta) {
+      this.horizon = false;
+      lineEnds[0] = 0;
+      Coordinate best = moves.get(0);
+      int bestValue = -Integer.MAX_VALUE;
+      for (int i = 0; i < moves.size(); i++) {
+        Coordinate move = moves.get(i);
+        MoveDelta delta = play(move.getQ(), move.getR());
+        int value = search(1, depth - 1, alpha, beta, i == 0);
+        takeBack(delta);
+        if (timeUp) {
+          return best;
+        }
+        if (value > bestValue) {
+          bestValue = value;
+          best = move;
+          if (value > alpha) {
+            alpha = value;
+            extendLine(0, geometry.indexOf(move.getQ(), move.getR()));
+          }
+        }
+        if (alpha >= beta) {
+          break; // the aspiration window failed high, and the depth will be searched again
+        }
+      }
+      this.rootValue = bestValue;
+      return best;
+    }
+
+    /**
+     * Returns the value for the player who just moved of the position reached by that move, the
+     * given number of plies from the root, searched to the given depth within the given window
+     * of the player who moved. Unless the move is the first one tried or the search window is
+     * FULL, it is first searched with a null window and only searched again with the full one if
+     * it turns out better than alpha.
+     */
+    private int search(int ply, int depth, int alpha, int beta, boolean first) {
+      if (first || window == SearchWindow.FULL) {
+        return -negamax(ply, depth, -beta, -alpha);
+      }
+      int value = -negamax(ply, depth, -alpha - 1, -alpha);
+      if (value > alpha && value < beta && !timeUp) {
+        value = -negamax(ply, depth, -beta, -alpha);
+      }
+      return value;
+    }
+
+    /**
+     * Makes the principal variation of the given ply the given move followed by that of the
+     * next ply.
+     */
+    private void extendLine(int ply, int move) {
+      if (lines[ply] == null) {
+        lines[ply] = new int[lines.length];
+      }
+      int next = ply + 1;
+      lines[ply][ply] = move;
+      int end = Math.max(lineEnds[next], next);
+      if (end > next) {
+        System.arraycopy(lines[next], next, lines[ply], next, end - next);
+      }
+      lineEnds[ply] = end;
+    }
+
+    /**
+     * Returns the principal variation of ply 0 as moves, null standing for a pass.
+     */
+    private List<Coordinate> principalVariation() {
+      List<Coordinate> moves = new ArrayList<>();
+      for (int i = 0; i < lineEnds[0]; i++) {
+        int move = lines[0][i];
+        moves.add(move == PASS ? null : geometry.coordinateAt(move));
+      }
+      return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * Returns the value of the position on the board for the player to move, the given number
+     * of plies from the root, searched to the given depth, where a value of at least beta is only
+     * a lower bound and a value of at most alpha only an upper bound.
+     */
+    private int negamax(int ply, int depth, int alpha, int beta) {
+      if ((++nodes & CHECK_INTERVAL) == 0
+              && (stop.get() || System.nanoTime() - deadline > 0)) {
+        timeUp = true;
+      }
+      if (timeUp) {
+        return 0;
+      }
+      lineEnds[ply] = ply;
+      if (board.isGameOver()) {
+        return finalScore();
+      }
+      if (depth == 0) {
+        horizon = true;
+        return evaluate();
+      }
+      long hash = board.getPositionHash();
+      int hashMove = -1;
+      if (table != null) {
+        long entry = table.probe(hash);
+        if (entry != TranspositionTable.MISS) {
+          hashMove = TranspositionTable.moveOf(entry);
+          int score = TranspositionTable.scoreOf(entry);
+          int bound = TranspositionTable.boundOf(entry);
+          if (TranspositionTable.depthOf(entry) >= depth
+                  && (bound == TranspositionTable.EXACT
+                  || bound == TranspositionTable.LOWER && score >= beta
+                  || bound == TranspositionTable.UPPER && score <= alpha)) {
+            if (TranspositionTable.depthOf(entry) != SOLVED) {
+              horizon = true;
+            }
+            return score;
+          }
+        }
+      }
+      if (cuts != null && ply > 0 && depth >= ProbCut.MIN_DEPTH) {
+        int cut = probCut(ply, depth, alpha, beta);
+        if (timeUp) {
+          return 0;
+        }
+        if (cut != NO_CUT) {
+          return cut;
+        }
+      }
+
+      boolean outer = horizon;
+      this.horizon = false;
+      int originalAlpha = alpha;
+      int best = -Integer.MAX_VALUE;
+      int bestMove = -1;
+      if (board.hasNoMoves(board.getColor())) { // the player must pass
+        MoveDelta pass = board.makePass();
+        best = -negamax(ply + 1, depth - 1, -beta, -alpha);
+        board.unmakeMove(pass);
+        if (best > alpha) {
+          extendLine(ply, PASS);
+        }
+      } else {
+        int count = order(ply, depth, hashMove);
+        int[] moves = moveLists[ply];
+        for (int i = 0; i < count; i++) {
+          int move = moves[i];
+          MoveDelta delta = play(geometry.qOf(move), geometry.rOf(move));
+          int value = search(ply + 1, depth - 1, alpha, beta, i == 0);
+          takeBack(delta);
+          if (timeUp) {
+            return 0;
+          }
+          if (value > best) {
+            best = value;
+            bestMove = move;
+          }
+          if (value > alpha) {
+            alpha = value;
+            extendLine(ply, move);
+          }
+          if (alpha >= beta) {
+            recordCutoff(ply, depth, move, i);
+            break; // the opponent will never let the game get here
+          }
+        }
+      }
+      boolean reached = horizon;
+      this.horizon = outer || reached;
+      if (table != null && !timeUp) {
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(hash, reached ? Math.min(depth, SOLVED - 1) : SOLVED, bound, best, bestMove);
+      }
+      return best;
+    }
+
+    /**
+     * Searches the position on the board, the given number of plies from the root, to the
+     * shallow depth the calibration pairs with the given depth, and returns beta if the deep
+     * search would very likely fail high, alpha if it would very likely fail low, or NO_CUT.
+     * Windows that reach the values of finished games are never cut.
+     */
+    private int probCut(int ply, int depth, int alpha, int beta) {
+      int shallow = cuts.shallowDepth(depth);
+      if (shallow < 0) {
+        return NO_CUT;
+      }
+      double slope = cuts.slope(depth);
+      double intercept = cuts.intercept(depth);
+      double margin = confidence * cuts.deviation(depth);
+      if (beta < WIN / 2) {
+        // the shallow value from which the deep value clears beta by the margin
+        double high = (beta + margin - intercept) / slope;
+        if (high < WIN / 2) {
+          int bound = (int) Math.ceil(high);
+          if (negamax(ply, shallow, bound - 1, bound) >= bound && !timeUp) {
+            probCuts++;
+            horizon = true;
+            return beta;
+          }
+        }
+      }
+      if (alpha > -WIN / 2) {
+        double low = (alpha - margin - intercept) / slope;
+        if (low > -WIN / 2) {
+          int bound = (int) Math.floor(low);
+          if (negamax(ply, shallow, bound, bound + 1) <= bound && !timeUp) {
+            probCuts++;
+            horizon = true;
+            return alpha;
+          }
+        }
+      }
+      return NO_CUT;
+    }
+
+    /**
+     * Makes the given move on the board and keeps the pattern evaluation up to date.
+     */
+    private MoveDelta play(int q, int r) {
+      MoveDelta delta = board.makeMove(q, r);
+      if (patterns != null) {
+        patterns.apply(delta);
+      }
+      return delta;
+    }
+
+    /**
+     * Unmakes the move the given MoveDelta records and keeps the pattern evaluation up to date.
+     */
+    private void takeBack(MoveDelta delta) {
+      if (patterns != null) {
+        patterns.undo(delta);
+      }
+      board.unmakeMove(delta);
+    }
+
+    /**
+     * Lists the legal moves of the position on the board, the given number of plies from the
+     * root, in the order the MoveOrdering tries them, and returns how many there are.
+     */
+    private int order(int ply, int depth, int hashMove) {
+      if (moveLists[ply] == null) {
+        moveLists[ply] = new int[geometry.cellCount()];
+        moveKeys[ply] = new long[geometry.cellCount()];
+        killers[ply] = new int[] {-1, -1};
+      }
+      int[] moves = moveLists[ply];
+      long[] keys = moveKeys[ply];
+      PlayColor other = opponent(board.getColor());
+      boolean countReplies = ordering == MoveOrdering.MOBILITY && depth >= PLAY_AHEAD_DEPTH;
+      boolean evaluateMoves = ordering == MoveOrdering.SHALLOW_SEARCH && depth >= PLAY_AHEAD_DEPTH;
+      int legal = board.legalMoves(legalMoves);
+      int count = 0;
+      for (int m = 0; m < legal; m++) {
+        int index = legalMoves[m];
+        long key;
+        if (index == hashMove) {
+          key = Long.MAX_VALUE;
+        } else if (ordering == MoveOrdering.PLAIN) {
+          key = 0;
+        } else if (index == killers[ply][0]) {
+          key = Long.MAX_VALUE - 1;
+        } else if (index == killers[ply][1]) {
+          key = Long.MAX_VALUE - 2;
+        } else {
+          key = history[index];
+          if (countReplies) {
+            // fewer replies weigh more than any history
+            MoveDelta delta = play(geometry.qOf(index), geometry.rOf(index));
+            key -= (long) board.getMobility(other) << 32;
+            takeBack(delta);
+          } else if (evaluateMoves) {
+            // so does a worse evaluation for the opponent
+            MoveDelta delta = play(geometry.qOf(index), geometry.rOf(index));
+            key -= (long) (board.isGameOver() ? finalScore() : evaluate()) << 32;
+            takeBack(delta);
+          }
+        }
+        // an insertion sort keeps moves with equal keys in board order
+        int i = count++;
+        while (i > 0 && keys[i - 1] < key) {
+          moves[i] = moves[i - 1];
+          keys[i] = keys[i - 1];
+          i--;
+        }
+        moves[i] = index;
+        keys[i] = key;
+      }
+      return count;
+    }
+
+    /**
+     * Remembers that the given move, the given number of plies from the root and tried as the
+     * i-th, refuted its position when searched to the given depth.
+     */
+    private void recordCutoff(int ply, int depth, int move, int i) {
+      cutoffs++;
+      if (i == 0) {
+        firstCutoffs++;
+      }
+      if (killers[ply][0] != move) {
+        killers[ply][1] = killers[ply][0];
+        killers[ply][0] = move;
+      }
+      history[move] += depth * depth;
+      if (history[move] > HISTORY_LIMIT) {
+        // older cutoffs count for less and less, and the history never overflows
+        for (int cell = 0; cell < history.length; cell++) {
+          history[cell] >>= 1;
+        }
+      }
+    }
+
+    /**
+     * Scores a finished game for the player to move: wins above every unfinished position,
+     * losses below, both by how many discs they are won or lost by.
+     */
+    private int finalScore() {
+      PlayColor player = board.getColor();
+      int difference = board.getScore(player) - board.getScore(opponent(player));
+      if (difference > 0) {
+        return WIN + difference;
+      }
+      if (difference < 0) {
+        return -WIN + difference;
+      }
+      return 0;
+    }
+
+    /**
+     * Scores an unfinished position for the player to move.
+     */
+    private int evaluate() {
+      PlayColor player = board.getColor();
+      if (patterns != null) {
+        return patterns.evaluate(board, player);
+      }
+      PlayColor other = opponent(player);
+      Cell own = player == PlayColor.BLACK ? Cell.BLACK : Cell.WHITE;
+      int corners = 0;
+      for (Coordinate corner : this.corners) {
+        Cell cell = board.getCell(corner.getQ(), corner.getR());
+        if (cell == own) {
+          corners++;
+        } else if (cell != Cell.EMPTY) {
+          corners--;
+        }
+      }
+      return board.getScore(player) - board.getScore(other)
+              + MOBILITY_WEIGHT * (board.getMobility(player) - board.getMobility(other))
+              + CORNER_WEIGHT * corners;
+    }
+  }
+
+  private static PlayColor opponent(PlayColor player) {
+    return player == PlayColor.BLACK ? PlayColor.WHITE : PlayColor.BLACK;
+  }
+}
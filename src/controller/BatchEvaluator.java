@@ -0,0 +1,214 @@
+package controller;
+
+import java.util.Arrays;
+
+import model.HexGeometry;
+
+/**
+ * BatchEvaluator scores many positions in one call with PatternWeights, giving every position the
+ * same worth the pattern evaluation of AlphaBetaStrategy gives it, for BLACK, in
+ * PatternWeights.SCALE units per disc.
+ * Positions are passed as packed boards rather than as models: every position is its BLACK
+ * bitset followed by its WHITE bitset, as BoardSnapshot.packDiscs() and PlayoutBoard.packDiscs()
+ * write them, and the positions of a batch follow each other in one long array, getStride()
+ * words apart. Scoring them needs no model, no virtual call and no allocation.
+ * A batch is scored in blocks of 64 positions, sliced across the positions: for every cell, one
+ * long per color holds the disc of every position of the block on that cell, one bit each. The
+ * rays of every cell are then walked for all 64 positions at once, every AND and OR of the walk
+ * working on all of them, to find the legal moves of both players. This needs no vector
+ * instructions, so it runs the same on every processor, and it only leaves the loop once the ray
+ * has ended for every position. Only the pattern indices and the lookups of the weights are done
+ * one position at a time. Scoring a single position walks every ray for it alone, so it costs
+ * more than a model, which keeps its legal moves up to date as the game goes; the evaluator pays
+ * off from batches of a few positions on.
+ * A BatchEvaluator keeps its scratch space between calls, so every thread needs one of its own.
+ */
+public final class BatchEvaluator {
+  private static final int BLOCK = Long.SIZE; // the number of positions sliced at a time
+
+  private final PatternWeights weights;
+  private final PatternSet patterns;
+  private final int cells; // the number of cells of the board
+  private final int words; // the number of longs of one bitset
+  private final int[][] rays; // the cells of the rays of every cell, in every direction
+  // the scratch space of a block: bit p of the slice of a cell is set when position p of the
+  // block has a disc of the color on the cell
+  private final long[] blackSlices;
+  private final long[] whiteSlices;
+  private final int[] mobility = new int[BLOCK]; // BLACK's legal moves less WHITE's
+  private final int[] index = new int[BLOCK]; // the index of one pattern instance
+  private final int[] stage = new int[BLOCK]; // the stage of the game
+  private final int[] single = new int[1]; // the worth of a position scored on its own
+
+  /**
+   * Constructs a BatchEvaluator that scores positions with the given weights.
+   *
+   * @param weights the weights of the pattern evaluation
+   * @throws IllegalArgumentException if the weights are null
+   */
+  public BatchEvaluator(PatternWeights weights) {
+    if (weights == null) {
+      throw new IllegalArgumentException("weights must not be null");
+    }
+    HexGeometry geometry = HexGeometry.of(weights.getBoardSize());
+    this.weights = weights;
+    this.patterns = PatternSet.of(weights.getBoardSize());
+    this.cells = geometry.cellCount();
+    this.words = geometry.wordCount();
+    this.rays = new int[cells * HexGeometry.DIRECTIONS][];
+    for (int cell = 0; cell < cells; cell++) {
+      for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+        int[] ray = new int[geometry.rayLength(cell, d)];
+        for (int step = 0; step < ray.length; step++) {
+          ray[step] = geometry.rayCell(cell, d, step);
+        }
+        rays[cell * HexGeometry.DIRECTIONS + d] = ray;
+      }
+    }
+    this.blackSlices = new long[cells];
+    this.whiteSlices = new long[cells];
+  }
+
+  /**
+   * Returns the size of the boards the evaluator scores.
+   */
+  public int getBoardSize() {
+    return weights.getBoardSize();
+  }
+
+  /**
+   * Returns the number of longs every packed position takes up.
+   */
+  public int getStride() {
+    return 2 * words;
+  }
+
+  /**
+   * Scores the given number of packed positions at the start of the given array and writes the
+   * worth of every one for BLACK into the given array of values, in the same order.
+   *
+   * @param boards the packed positions, getStride() longs apart
+   * @param count  the number of positions to score
+   * @param into   receives the worth of every position for BLACK
+   * @throws IllegalArgumentException if the count is negative or either array is too short
+   */
+  public void evaluate(long[] boards, int count, int[] into) {
+    if (count < 0 || (long) count * getStride() > boards.length || count > into.length) {
+      throw new IllegalArgumentException("arrays must hold the positions and their values");
+    }
+    for (int first = 0; first < count; first += BLOCK) {
+      evaluateBlock(boards, first * getStride(), Math.min(BLOCK, count - first), into, first);
+    }
+  }
+
+  /**
+   * Returns the worth for BLACK of the one packed position at the given offset of the given
+   * array.
+   *
+   * @param boards the array holding the packed position
+   * @param offset the index of the first word of the position
+   * @return the worth of the position for BLACK
+   * @throws IllegalArgumentException if the array does not hold a whole position at the offset
+   */
+  public int evaluate(long[] boards, int offset) {
+    if (offset < 0 || offset + getStride() > boards.length) {
+      throw new IllegalArgumentException("array must hold the position");
+    }
+    evaluateBlock(boards, offset, 1, single, 0);
+    return single[0];
+  }
+
+  /**
+   * Scores the given number of packed positions, at most BLOCK, from the given offset on, and
+   * writes their worth into the given array from the given index on.
+   */
+  private void evaluateBlock(long[] boards, int offset, int count, int[] into, int first) {
+    // slice the block across the positions, one bit per position for every cell, and find the
+    // stage of every position
+    Arrays.fill(blackSlices, 0);
+    Arrays.fill(whiteSlices, 0);
+    for (int position = 0; position < count; position++) {
+      int start = offset + position * getStride();
+      long lane = 1L << position;
+      int discs = 0;
+      for (int word = 0; word < words; word++) {
+        discs += slice(boards[start + word], word, lane, blackSlices);
+        discs += slice(boards[start + words + word], word, lane, whiteSlices);
+      }
+      stage[position] = PatternWeights.stageOf(discs, cells);
+    }
+
+    Arrays.fill(mobility, 0, count, 0);
+    long lanes = -1L >>> (BLOCK - count); // the lanes of the positions of the block
+    countMoves(blackSlices, whiteSlices, lanes, 1);
+    countMoves(whiteSlices, blackSlices, lanes, -1);
+    for (int position = 0; position < count; position++) {
+      into[first + position] = weights.mobility[stage[position]] * mobility[position];
+    }
+
+    for (int instance = 0; instance < patterns.instanceCount(); instance++) {
+      int[] members = patterns.instanceCells[instance];
+      Arrays.fill(index, 0, count, 0);
+      int power = 1;
+      for (int member : members) {
+        addToLanes(blackSlices[member], power);
+        addToLanes(whiteSlices[member], 2 * power);
+        power *= 3;
+      }
+      int pattern = patterns.instancePattern[instance];
+      for (int position = 0; position < count; position++) {
+        into[first + position] += weights.tables[stage[position]][pattern][index[position]];
+      }
+    }
+  }
+
+  /**
+   * Sets the given lane in the slice of every cell whose bit is set in the given word of a
+   * bitset, and returns how many there are.
+   */
+  private static int slice(long bits, int word, long lane, long[] slices) {
+    int count = Long.bitCount(bits);
+    while (bits != 0) {
+      slices[(word << 6) + Long.numberOfTrailingZeros(bits)] |= lane;
+      bits &= bits - 1;
+    }
+    return count;
+  }
+
+  /**
+   * Adds the given amount to the pattern index of every position whose lane is set.
+   */
+  private void addToLanes(long lanes, int amount) {
+    while (lanes != 0) {
+      index[Long.numberOfTrailingZeros(lanes)] += amount;
+      lanes &= lanes - 1;
+    }
+  }
+
+  /**
+   * Adds the given sign times the number of legal moves of the player whose discs are in the
+   * first slices to the mobility of every position of the block in the given lanes.
+   */
+  private void countMoves(long[] own, long[] other, long lanes, int sign) {
+    for (int cell = 0; cell < cells; cell++) {
+      long empty = ~(own[cell] | other[cell]) & lanes;
+      long legal = 0;
+      for (int d = 0; d < HexGeometry.DIRECTIONS && legal != empty; d++) {
+        int[] ray = rays[cell * HexGeometry.DIRECTIONS + d];
+        if (ray.length < 2) {
+          continue;
+        }
+        // the positions whose ray so far holds only discs of the other player
+        long alive = other[ray[0]] & empty & ~legal;
+        for (int step = 1; step < ray.length && alive != 0; step++) {
+          legal |= alive & own[ray[step]];
+          alive &= other[ray[step]];
+        }
+      }
+      while (legal != 0) {
+        mobility[Long.numberOfTrailingZeros(legal)] += sign;
+        legal &= legal - 1;
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package controller;
+
+import java.util.List;
+
+import model.BoardSnapshot;
+import model.Coordinate;
+import model.ReversiModel;
+
+/**
+ * BookStrategy plays from an OpeningBook while the game is in it, and lets another strategy
+ * decide every move once it is not.
+ * Of the moves the book knows for the position that were played in at least the given number of
+ * games, it plays the one whose games the player who made it scored best in, the one played more
+ * often winning ties. The book also knows the rotations and reflections of its positions. A move
+ * is only played if it is legal, so a position that merely shares its hash with a book position
+ * falls back to the other strategy as well.
+ */
+public class BookStrategy implements ReversiStrategies {
+  private final OpeningBook book;
+  private final ReversiStrategies fallback;
+  private final int minGames; // the fewest games a move must have been played in to be chosen
+  private boolean lastFromBook; // whether the latest decided move came from the book
+
+  /**
+   * Constructs a BookStrategy that plays from the given book and asks the fallback strategy
+   * once the book runs out.
+   *
+   * @param book     the opening book
+   * @param fallback the strategy for positions the book does not know
+   * @param minGames the fewest games a book move must have been played in to be chosen
+   * @throws IllegalArgumentException if the book or fallback is null or minGames not positive
+   */
+  public BookStrategy(OpeningBook book, ReversiStrategies fallback, int minGames) {
+    if (book == null || fallback == null) {
+      throw new IllegalArgumentException("book and fallback strategy cannot be null");
+    }
+    if (minGames <= 0) {
+      throw new IllegalArgumentException("a book move must have been played at least once");
+    }
+    this.book = book;
+    this.fallback = fallback;
+    this.minGames = minGames;
+  }
+
+  @Override
+  public Coordinate decideMove(ReversiModel model) {
+    BoardSnapshot position = model.snapshot();
+    this.lastFromBook = false;
+    if (position.getBoardSize() == book.getBoardSize() && !position.isGameOver()) {
+      OpeningBook.Move best = null;
+      List<OpeningBook.Move> moves = book.lookup(position);
+      for (OpeningBook.Move move : moves) {
+        if (move.getGames() >= minGames && (best == null || move.getScore() > best.getScore()
+                || move.getScore() == best.getScore() && move.getGames() > best.getGames())) {
+          best = move;
+        }
+      }
+      if (best != null && position.isLegalMove(best.getMove().getQ(), best.getMove().getR())) {
+        fallback.stopPondering();
+        this.lastFromBook = true;
+        return best.getMove();
+      }
+    }
+    return fallback.decideMove(model);
+  }
+
+  @Override
+  public void ponder(ReversiModel model) {
+    fallback.ponder(model);
+  }
+
+  @Override
+  public void stopPondering() {
+    fallback.stopPondering();
+  }
+
+  /**
+   * Returns whether the move the latest decideMove() returned came from the book.
+   */
+  public boolean isLastFromBook() {
+    return lastFromBook;
+  }
+}
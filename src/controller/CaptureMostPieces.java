@@ -1,10 +1,10 @@
 package controller;
 
 import java.util.ArrayList;
-import java.util.Map;
 
-import model.Cell;
 import model.Coordinate;
+import model.HexGeometry;
+import model.PlayColor;
 import model.ReversiModel;
 
 /**
@@ -24,17 +24,16 @@ public class CaptureMostPieces implements ReversiStrategies {
   @Override
   public Coordinate decideMove(ReversiModel model) {
     int maximum_score = 0;
-    Coordinate ideal_move = new Coordinate(1, 1);
-    Map<Coordinate, Cell> temp_board = model.returnBoard();
+    Coordinate ideal_move = HexGeometry.of(model.getBoardSize()).coordinateOf(1, 1);
     ArrayList<Coordinate> all_moves = model.getAllMoves();
+    PlayColor color = model.getColor();
 
-    if (model.getAllMoves().isEmpty()) {
+    if (all_moves.isEmpty()) {
       return ideal_move;
     }
-    // iterate over the board to find the maximum score move.
+    // the score after a move is the current score, the placed disc and every flipped disc.
     for (Coordinate m: all_moves) {
-      model.move(m.getQ(), m.getR());
-      int score = model.getScore(model.getColor());
+      int score = model.getScore(color) + 1 + model.flipCount(m.getQ(), m.getR(), color);
       if (score > maximum_score) {
         maximum_score = score;
         ideal_move = m;
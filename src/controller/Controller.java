@@ -2,6 +2,8 @@ package controller;
 
 
 
+import java.util.Optional;
+
 import model.Coordinate;
 import model.ModelStatus;
 import model.PlayColor;
@@ -20,7 +22,7 @@ public class Controller implements Features {
   private final ReversiView view;
   private final ModelStatus status;
   private final Player player;
-
+  private long seenVersion = -1; // the version of the latest position update() acted on
 
   /**
    * This constructor initializes the controller for the user.
@@ -39,15 +41,38 @@ public class Controller implements Features {
   /**
    * Updates the view so that the controller and model state is accurately depicted.
    * Checks for game over scenario.
+   * An AI player acts once on every new position: it is told to ponder while the opponent is to
+   * move, and makes its move once it is to move itself. Asking it for the move is what ends the
+   * pondering: a search of the reply it guessed goes on within its time budget, and any other
+   * pondering is cancelled. It is told to stop pondering once the game is over.
    */
   public void update() {
     view.refresh();
     if (status.getStatus() == ModelStatus.Status.END) {
+      player.stopPondering();
       PlayColor winner = model.getColor();
       boolean win = winner == player.getColor();
       view.showErrorMessage("GAME IS OVER!");
       return;
     }
+    if (!player.aiPlayer() || player.getColor() == null) {
+      return;
+    }
+    long version = model.snapshot().getVersion();
+    if (version == seenVersion) {
+      return; // the position has not changed since the AI last acted on it
+    }
+    this.seenVersion = version;
+    if (player.getColor() != model.getColor()) {
+      player.ponder(model);
+      return;
+    }
+    Optional<Coordinate> move = player.chooseNextMove(model);
+    if (move.isPresent()) {
+      model.move(move.get().getQ(), move.get().getR());
+    } else {
+      model.pass();
+    }
   }
 
   /**
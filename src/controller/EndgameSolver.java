@@ -0,0 +1,358 @@
+package controller;
+
+import java.util.ArrayList;
+
+import model.BoardSnapshot;
+import model.Cell;
+import model.Coordinate;
+import model.HexGeometry;
+import model.PlayColor;
+import model.PlayoutBoard;
+import model.ReversiModel;
+
+/**
+ * This Function Object represents a strategy for the end of the game: once only a few cells are
+ * EMPTY, it searches every line of play to the end and plays the move with the best final disc
+ * difference the opponent cannot prevent, so it never throws away an endgame that can be won.
+ * It can also solve for the outcome only, which only tells wins, draws and losses apart and
+ * prunes far more, when the exact margin does not matter.
+ * The search keeps the EMPTY cells in a linked list, so it only ever looks at the cells that can
+ * still be played, and plays ahead on one PlayoutBoard per remaining move, so it allocates
+ * nothing while it searches. The moves of a position are tried in an order that finds the best
+ * one early: far from the end, the moves that leave the opponent the fewest replies come first;
+ * close to it, the moves into a region of the board with an odd number of EMPTY cells come
+ * first, since whoever plays last in a region tends to keep what it flips there. The regions are
+ * the six sextants of the board around the center.
+ * Far from the end, positions are also remembered in a TranspositionTable of the solver's own,
+ * keyed by the hash of the PlayoutBoard, together with their best move, which is tried first when
+ * they come up again. Since the solved values never depend on a search depth, the table is kept
+ * from one move to the next.
+ * The solver gives up when its time budget runs out and then plays the best move it finished
+ * looking at, so it should only be asked to solve positions with few enough EMPTY cells; AIPlayer
+ * can switch to it below an EMPTY cell threshold.
+ */
+public class EndgameSolver implements ReversiStrategies {
+  private static final int CHECK_INTERVAL = 1023; // nodes between looks at the clock, minus one
+  // from this many EMPTY cells on, moves are ordered by the replies they leave
+  private static final int FASTEST_FIRST_EMPTIES = 7;
+  private static final int REGIONS = 6;
+  private static final int TABLE_MEGABYTES = 16; // the size of the solver's own table
+
+  private final long budgetNanos; // the time one decideMove() may take
+  private final boolean outcomeOnly; // whether only wins, draws and losses are told apart
+  private final TranspositionTable table; // the positions already solved, kept between moves
+  private HexGeometry geometry; // the board the buffers below are allocated for
+  private int[] region; // the sextant of every cell
+  private int[] next; // the EMPTY cell after every EMPTY cell, the list starting at the head
+  private int[] previous; // the EMPTY cell before every EMPTY cell
+  private int head; // the index the linked list starts and ends at, one past the last cell
+  private PlayoutBoard[] boards; // the position after every move played ahead, root first
+  private int[][] moves; // the moves of the position at every depth, in the order they are tried
+  private int[][] replies; // the number of replies every move leaves, where it was counted
+  private int empties; // the number of EMPTY cells in the position being searched
+  private int parity; // bit i is set when region i has an odd number of EMPTY cells
+  private long deadline; // the System.nanoTime() at which the search gives up
+  private boolean timeUp; // whether the deadline passed, making the running search worthless
+  private long nodes; // the positions visited by the running search
+  private int lastScore; // the solved value of the latest position
+  private boolean lastSolved; // whether the latest decideMove() finished its search
+  private long lastNodes; // the positions visited for the latest decided move
+
+  /**
+   * Constructs an EndgameSolver that finds the exact final disc difference and may think for the
+   * given number of milliseconds on every move.
+   *
+   * @param budgetMillis the time budget of every move, in milliseconds
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public EndgameSolver(long budgetMillis) {
+    this(budgetMillis, false);
+  }
+
+  /**
+   * Constructs an EndgameSolver that may think for the given number of milliseconds on every
+   * move, and either finds the exact final disc difference or only whether the game is won,
+   * drawn or lost.
+   *
+   * @param budgetMillis the time budget of every move, in milliseconds
+   * @param outcomeOnly  true to only tell wins, draws and losses apart
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public EndgameSolver(long budgetMillis, boolean outcomeOnly) {
+    if (budgetMillis <= 0) {
+      throw new IllegalArgumentException("time budget must be positive");
+    }
+    this.budgetNanos = budgetMillis * 1_000_000L;
+    this.outcomeOnly = outcomeOnly;
+    this.table = new TranspositionTable(TABLE_MEGABYTES);
+  }
+
+  /**
+   * Returns the move with the best final result for the player to move in the latest published
+   * position of the given model, or null if that player has no legal move and must pass. If the
+   * time budget runs out first, returns the best of the moves that were solved, or the most
+   * promising move if none was.
+   */
+  @Override
+  public Coordinate decideMove(ReversiModel model) {
+    BoardSnapshot position = model.snapshot();
+    ArrayList<Coordinate> legal = position.getAllMoves();
+    this.lastSolved = false;
+    this.lastNodes = 0;
+    if (position.isGameOver() || legal.isEmpty()) {
+      return null;
+    }
+    prepare(position);
+    table.newSearch();
+    this.deadline = System.nanoTime() + budgetNanos;
+    int alpha = outcomeOnly ? -1 : -Integer.MAX_VALUE;
+    int beta = outcomeOnly ? 1 : Integer.MAX_VALUE;
+
+    long entry = table.probe(boards[0].hash());
+    int hashMove = entry == TranspositionTable.MISS ? -1 : TranspositionTable.moveOf(entry);
+    int count = order(0, hashMove);
+    int best = moves[0][0];
+    int bestValue = -Integer.MAX_VALUE;
+    for (int i = 0; i < count; i++) {
+      int move = moves[0][i];
+      int value = -playAndSolve(0, move, -beta, -alpha);
+      if (timeUp) {
+        break;
+      }
+      if (value > bestValue) {
+        bestValue = value;
+        best = move;
+      }
+      if (value > alpha) {
+        alpha = value;
+      }
+      if (alpha >= beta) {
+        break; // a win is all the outcome needs
+      }
+    }
+    this.lastSolved = !timeUp;
+    this.lastScore = bestValue;
+    this.lastNodes = nodes;
+    return geometry.coordinateAt(best);
+  }
+
+  /**
+   * Returns the value for the player to move of the position the latest decideMove() solved: its
+   * final disc difference, or with outcomeOnly 1, 0 or -1 for a win, a draw or a loss. It is only
+   * meaningful if isLastSolved() returns true.
+   */
+  public int getLastScore() {
+    return lastScore;
+  }
+
+  /**
+   * Returns whether the latest decideMove() solved its position before the time ran out.
+   */
+  public boolean isLastSolved() {
+    return lastSolved;
+  }
+
+  /**
+   * Returns the number of positions the latest decideMove() visited.
+   */
+  public long getLastNodes() {
+    return lastNodes;
+  }
+
+  /**
+   * Copies the given position to the root board and lists its EMPTY cells, allocating the
+   * buffers again only when the board size changed.
+   */
+  private void prepare(BoardSnapshot position) {
+    HexGeometry board = HexGeometry.of(position.getBoardSize());
+    int cells = board.cellCount();
+    if (board != geometry) {
+      this.geometry = board;
+      this.region = new int[cells];
+      for (int index = 0; index < cells; index++) {
+        region[index] = sextant(board.qOf(index), board.rOf(index));
+      }
+      this.next = new int[cells + 1];
+      this.previous = new int[cells + 1];
+      this.head = cells;
+      // every move fills a cell or passes, and two passes in a row end the game
+      this.boards = new PlayoutBoard[2 * cells + 2];
+      this.moves = new int[boards.length][cells];
+      this.replies = new int[boards.length][cells];
+      for (int i = 0; i < boards.length; i++) {
+        boards[i] = new PlayoutBoard(position.getBoardSize());
+      }
+    }
+    boards[0].copyFrom(position);
+    this.parity = 0;
+    this.empties = 0;
+    int last = head;
+    for (int index = 0; index < cells; index++) {
+      if (position.getCell(geometry.qOf(index), geometry.rOf(index)) == Cell.EMPTY) {
+        next[last] = index;
+        previous[index] = last;
+        last = index;
+        parity ^= 1 << region[index];
+        empties++;
+      }
+    }
+    next[last] = head;
+    previous[head] = last;
+    this.nodes = 0;
+    this.timeUp = false;
+  }
+
+  /**
+   * Plays the given move from the position at the given depth, solves the position it leads to
+   * and takes the move back, returning that position's value for the player to move there.
+   */
+  private int playAndSolve(int depth, int move, int alpha, int beta) {
+    PlayoutBoard after = boards[depth + 1];
+    after.copyFrom(boards[depth]);
+    after.play(move);
+    next[previous[move]] = next[move];
+    previous[next[move]] = previous[move];
+    parity ^= 1 << region[move];
+    empties--;
+    int value = solve(depth + 1, alpha, beta);
+    empties++;
+    parity ^= 1 << region[move];
+    next[previous[move]] = move;
+    previous[next[move]] = move;
+    return value;
+  }
+
+  /**
+   * Returns the value of the position at the given depth for the player to move, where a value
+   * of at least beta is only a lower bound and a value of at most alpha only an upper bound.
+   */
+  private int solve(int depth, int alpha, int beta) {
+    if ((++nodes & CHECK_INTERVAL) == 0 && System.nanoTime() - deadline > 0) {
+      timeUp = true;
+    }
+    if (timeUp) {
+      return 0;
+    }
+    PlayoutBoard board = boards[depth];
+    boolean remember = empties >= FASTEST_FIRST_EMPTIES;
+    long hash = 0;
+    int hashMove = -1;
+    if (remember) {
+      hash = board.hash();
+      long entry = table.probe(hash);
+      if (entry != TranspositionTable.MISS) {
+        hashMove = TranspositionTable.moveOf(entry);
+        int score = TranspositionTable.scoreOf(entry);
+        int bound = TranspositionTable.boundOf(entry);
+        if (bound == TranspositionTable.EXACT
+                || bound == TranspositionTable.LOWER && score >= beta
+                || bound == TranspositionTable.UPPER && score <= alpha) {
+          return score;
+        }
+      }
+    }
+    int count = order(depth, hashMove);
+    if (count == 0) {
+      if (board.getPassed() > 0 || empties == 0) {
+        return finalValue(board); // neither player can move
+      }
+      PlayoutBoard after = boards[depth + 1];
+      after.copyFrom(board);
+      after.play(-1);
+      return -solve(depth + 1, -beta, -alpha);
+    }
+    int originalAlpha = alpha;
+    int best = -Integer.MAX_VALUE;
+    int bestMove = -1;
+    for (int i = 0; i < count; i++) {
+      int value = -playAndSolve(depth, moves[depth][i], -beta, -alpha);
+      if (timeUp) {
+        return 0;
+      }
+      if (value > best) {
+        best = value;
+        bestMove = moves[depth][i];
+      }
+      if (value > alpha) {
+        alpha = value;
+      }
+      if (alpha >= beta) {
+        break; // the opponent will never let the game get here
+      }
+    }
+    if (remember) {
+      int bound = best <= originalAlpha ? TranspositionTable.UPPER
+              : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+      table.store(hash, Math.min(empties, TranspositionTable.MAX_DEPTH), bound, best, bestMove);
+    }
+    return best;
+  }
+
+  /**
+   * Lists the legal moves of the position at the given depth in the order they should be tried,
+   * the given remembered best move first if it is one of them, and returns how many there are.
+   */
+  private int order(int depth, int hashMove) {
+    PlayoutBoard board = boards[depth];
+    int[] list = moves[depth];
+    int count = 0;
+    if (depth > 0 && empties < FASTEST_FIRST_EMPTIES) {
+      // the moves into regions with an odd number of EMPTY cells first
+      for (int odd = 1; odd >= 0; odd--) {
+        for (int cell = next[head]; cell != head; cell = next[cell]) {
+          if ((parity >>> region[cell] & 1) == odd && board.isLegal(cell)) {
+            list[count++] = cell;
+          }
+        }
+      }
+      return count;
+    }
+
+    // the moves that leave the opponent the fewest replies first, odd regions winning ties
+    int[] scores = replies[depth];
+    PlayoutBoard after = boards[depth + 1];
+    for (int cell = next[head]; cell != head; cell = next[cell]) {
+      if (board.isLegal(cell)) {
+        after.copyFrom(board);
+        after.play(cell);
+        int replyCount = 0;
+        for (int reply = next[head]; reply != head; reply = next[reply]) {
+          if (reply != cell && after.isLegal(reply)) {
+            replyCount++;
+          }
+        }
+        int score = cell == hashMove ? -1 : 2 * replyCount + (parity >>> region[cell] & 1 ^ 1);
+        int i = count++;
+        while (i > 0 && scores[i - 1] > score) {
+          list[i] = list[i - 1];
+          scores[i] = scores[i - 1];
+          i--;
+        }
+        list[i] = cell;
+        scores[i] = score;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the value of the finished game on the given board for the player to move.
+   */
+  private int finalValue(PlayoutBoard board) {
+    PlayColor player = board.getColor();
+    PlayColor other = player == PlayColor.BLACK ? PlayColor.WHITE : PlayColor.BLACK;
+    int difference = board.getScore(player) - board.getScore(other);
+    return outcomeOnly ? Integer.signum(difference) : difference;
+  }
+
+  /**
+   * Returns the sextant around the center of the board that the cell at the given axial
+   * coordinates lies in, from 0 to 5.
+   */
+  private static int sextant(int q, int r) {
+    double x = Math.sqrt(3) * (q + r / 2.0);
+    double y = 1.5 * r;
+    int sector = (int) Math.floor((Math.atan2(y, x) + Math.PI) / (Math.PI / 3));
+    return Math.min(sector, REGIONS - 1);
+  }
+}
@@ -0,0 +1,308 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+
+import model.BoardSnapshot;
+import model.Coordinate;
+import model.HexGeometry;
+import model.PlayColor;
+import model.PlayoutBoard;
+import model.ReversiModel;
+
+/**
+ * This Function Object represents a strategy that plays out random games instead of evaluating
+ * positions: a Monte Carlo Tree Search with UCT selection.
+ * Every iteration walks down the search tree from the current position, always choosing the
+ * child with the best upper confidence bound on its win rate, grows the tree by the children of
+ * the position it ends on, plays that position out to the end with uniformly random moves, and
+ * counts the result for every position on the way. The move visited most often at the root is
+ * played. This needs no evaluation of unfinished positions, so it plays sensibly on boards far
+ * too large for AlphaBetaStrategy to search deeply.
+ * The search is root-parallel: every thread grows a tree of its own from the same position, and
+ * the root visits of all trees are added up before choosing the move. The calling thread is one
+ * of the threads, and the others are workers of the pool every search shares, as SearchThreads
+ * describes.
+ * Every tree lives in primitive arrays allocated once, with the strategy, and reused for every
+ * move, and the playouts run on a PlayoutBoard, so searching allocates nothing. When a tree runs
+ * out of room it stops growing and keeps playing out from its leaves.
+ * Like AlphaBetaStrategy, it reads the latest published position of the model and never changes
+ * the model.
+ */
+public class MctsStrategy implements ReversiStrategies {
+  /**
+   * The number of tree nodes every thread gets unless another number is asked for.
+   */
+  public static final int DEFAULT_NODES = 1 << 18;
+  private static final double EXPLORATION = Math.sqrt(2); // the UCT exploration constant
+
+  private final long budgetNanos; // the time one decideMove() may take
+  private final long maxPlayouts; // the playouts of all threads together one decideMove() may run
+  private final Tree[] trees; // one search tree per thread
+  private long lastPlayouts; // the playouts run for the latest decided move
+
+  /**
+   * Constructs a single-threaded MctsStrategy that plays out games for the given number of
+   * milliseconds on every move.
+   *
+   * @param budgetMillis the time budget of every move, in milliseconds
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public MctsStrategy(long budgetMillis) {
+    this(budgetMillis, Long.MAX_VALUE, 1);
+  }
+
+  /**
+   * Constructs an MctsStrategy that plays out games on every move with the given number of
+   * threads, until either the time budget or the number of playouts is used up.
+   *
+   * @param budgetMillis the time budget of every move, in milliseconds
+   * @param maxPlayouts  the number of playouts of all threads together on every move
+   * @param threads      the number of threads to search with
+   * @throws IllegalArgumentException if any of the limits is not positive
+   */
+  public MctsStrategy(long budgetMillis, long maxPlayouts, int threads) {
+    this(budgetMillis, maxPlayouts, threads, DEFAULT_NODES);
+  }
+
+  /**
+   * Constructs an MctsStrategy that plays out games on every move with the given number of
+   * threads, until either the time budget or the number of playouts is used up, and gives the
+   * tree of every thread room for the given number of nodes.
+   *
+   * @param budgetMillis   the time budget of every move, in milliseconds
+   * @param maxPlayouts    the number of playouts of all threads together on every move
+   * @param threads        the number of threads to search with
+   * @param nodesPerThread the number of positions the tree of every thread can hold
+   * @throws IllegalArgumentException if any of the limits is not positive
+   */
+  public MctsStrategy(long budgetMillis, long maxPlayouts, int threads, int nodesPerThread) {
+    if (budgetMillis <= 0) {
+      throw new IllegalArgumentException("time budget must be positive");
+    }
+    if (maxPlayouts <= 0) {
+      throw new IllegalArgumentException("playout count must be positive");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("thread count must be positive");
+    }
+    if (nodesPerThread <= 0) {
+      throw new IllegalArgumentException("node count must be positive");
+    }
+    this.budgetNanos = budgetMillis * 1_000_000L;
+    this.maxPlayouts = maxPlayouts;
+    this.trees = new Tree[threads];
+    SplittableRandom seeds = new SplittableRandom();
+    for (int i = 0; i < threads; i++) {
+      trees[i] = new Tree(nodesPerThread, seeds.split());
+    }
+  }
+
+  /**
+   * Returns the move visited most often at the root for the player to move in the latest
+   * published position of the given model, or null if that player has no legal move and must
+   * pass.
+   */
+  @Override
+  public Coordinate decideMove(ReversiModel model) {
+    BoardSnapshot position = model.snapshot();
+    ArrayList<Coordinate> moves = position.getAllMoves();
+    this.lastPlayouts = 0;
+    if (position.isGameOver() || moves.isEmpty()) {
+      return null;
+    }
+    if (moves.size() == 1) {
+      return moves.get(0);
+    }
+    long deadline = System.nanoTime() + budgetNanos;
+    long share = (maxPlayouts + trees.length - 1) / trees.length;
+    List<ForkJoinTask<?>> running = new ArrayList<>();
+    for (int i = 1; i < trees.length; i++) {
+      Tree tree = trees[i];
+      running.add(SearchThreads.pool().submit(() -> tree.search(position, deadline, share)));
+    }
+    trees[0].search(position, deadline, share);
+    for (ForkJoinTask<?> task : running) {
+      task.join();
+    }
+
+    // every tree lists the root moves in the same order, so their visits add up child by child
+    Tree first = trees[0];
+    int bestChild = 0;
+    long bestVisits = -1;
+    for (int child = 0; child < first.childCount[0]; child++) {
+      long visits = 0;
+      for (Tree tree : trees) {
+        visits += tree.visits[tree.firstChild[0] + child];
+      }
+      if (visits > bestVisits) {
+        bestVisits = visits;
+        bestChild = child;
+      }
+    }
+    for (Tree tree : trees) {
+      this.lastPlayouts += tree.playouts;
+    }
+    HexGeometry geometry = HexGeometry.of(model.getBoardSize());
+    return geometry.coordinateAt(first.move[first.firstChild[0] + bestChild]);
+  }
+
+  /**
+   * Returns the number of playouts all threads together ran for the move the latest
+   * decideMove() returned.
+   */
+  public long getLastPlayouts() {
+    return lastPlayouts;
+  }
+
+  /**
+   * Tree is the search tree of one thread, kept in parallel arrays indexed by node, with the
+   * root at node 0 and the children of every node next to each other. The wins of a node count
+   * for the player who made the move leading to it, a draw counting as half a win.
+   */
+  private static final class Tree {
+    private final int[] move; // the cell index of the move leading to every node, -1 for a pass
+    private final int[] firstChild; // the first child of every node, or -1 if not expanded
+    private final int[] childCount; // the number of children of every node
+    private final int[] visits; // how many playouts went through every node
+    private final double[] wins; // the wins of those playouts for the player who moved
+    private final SplittableRandom random; // the source of the random playouts
+    private int size; // the number of nodes in use
+    private PlayoutBoard root; // the position the tree grows from
+    private PlayoutBoard board; // the position of the running iteration
+    private int[] scratch; // the legal moves of the position being expanded
+    private int[] path; // the nodes the running iteration walked through, root first
+    private long playouts; // the playouts run for the latest move
+
+    Tree(int nodes, SplittableRandom random) {
+      this.move = new int[nodes];
+      this.firstChild = new int[nodes];
+      this.childCount = new int[nodes];
+      this.visits = new int[nodes];
+      this.wins = new double[nodes];
+      this.random = random;
+    }
+
+    /**
+     * Grows the tree from the given position until the deadline passes or the given number of
+     * playouts ran.
+     */
+    void search(BoardSnapshot position, long deadline, long maxPlayouts) {
+      int boardSize = position.getBoardSize();
+      if (root == null || HexGeometry.of(boardSize).cellCount() != scratch.length) {
+        // the boards are only allocated again when the board size changes
+        int cells = HexGeometry.of(boardSize).cellCount();
+        this.root = new PlayoutBoard(boardSize);
+        this.board = new PlayoutBoard(boardSize);
+        this.scratch = new int[cells];
+        this.path = new int[2 * cells + 3]; // every move but the last few may follow a pass
+      }
+      if (move.length < 1 + scratch.length) {
+        throw new IllegalStateException("node pool is too small for this board");
+      }
+      root.copyFrom(position);
+      this.size = 1;
+      this.playouts = 0;
+      reset(0, -1);
+      board.copyFrom(root);
+      expand(0);
+      PlayColor rootColor = root.getColor();
+      while (playouts < maxPlayouts && System.nanoTime() - deadline < 0) {
+        iterate(rootColor);
+        playouts++;
+      }
+    }
+
+    /**
+     * Runs one selection, expansion, playout and backpropagation.
+     */
+    private void iterate(PlayColor rootColor) {
+      board.copyFrom(root);
+      int node = 0;
+      int depth = 0;
+      path[depth++] = node;
+      while (childCount[node] > 0) {
+        node = select(node);
+        board.play(move[node]);
+        path[depth++] = node;
+      }
+      // a leaf visited before grows its children, unless the game is over there
+      if (visits[node] > 0 && board.getPassed() < 2 && expand(node)) {
+        node = firstChild[node];
+        board.play(move[node]);
+        path[depth++] = node;
+      }
+
+      int difference = board.playRandomGame(random);
+      double blackResult = difference > 0 ? 1 : difference < 0 ? 0 : 0.5;
+      for (int step = 0; step < depth; step++) {
+        int visited = path[step];
+        visits[visited]++;
+        if (step > 0) {
+          // the player who moved into the node at this step moved at the step before
+          PlayColor mover = (step - 1) % 2 == 0 ? rootColor : opponent(rootColor);
+          wins[visited] += mover == PlayColor.BLACK ? blackResult : 1 - blackResult;
+        }
+      }
+    }
+
+    /**
+     * Returns the child of the given node with the best upper confidence bound, or its first
+     * child that was never visited.
+     */
+    private int select(int node) {
+      double logParent = Math.log(visits[node]);
+      int best = firstChild[node];
+      double bestBound = Double.NEGATIVE_INFINITY;
+      for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+        if (visits[child] == 0) {
+          return child;
+        }
+        double bound = wins[child] / visits[child]
+                + EXPLORATION * Math.sqrt(logParent / visits[child]);
+        if (bound > bestBound) {
+          bestBound = bound;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Gives the given node, whose position is on the board, one child per legal move, or a
+     * single pass child if there is none.
+     *
+     * @return false if the tree has no room left for the children
+     */
+    private boolean expand(int node) {
+      int count = board.legalMoves(scratch);
+      int children = Math.max(count, 1);
+      if (size + children > move.length) {
+        return false;
+      }
+      firstChild[node] = size;
+      childCount[node] = children;
+      if (count == 0) {
+        reset(size++, -1);
+      }
+      for (int i = 0; i < count; i++) {
+        reset(size++, scratch[i]);
+      }
+      return true;
+    }
+
+    private void reset(int node, int moveIndex) {
+      move[node] = moveIndex;
+      firstChild[node] = -1;
+      childCount[node] = 0;
+      visits[node] = 0;
+      wins[node] = 0;
+    }
+  }
+
+  private static PlayColor opponent(PlayColor player) {
+    return player == PlayColor.BLACK ? PlayColor.WHITE : PlayColor.BLACK;
+  }
+}
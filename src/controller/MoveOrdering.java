@@ -0,0 +1,18 @@
+package controller;
+
+/**
+ * An Enumeration of the orders AlphaBetaStrategy can try the moves of a position in. Every order
+ * tries the best move the TranspositionTable remembers for the position first.
+ * PLAIN tries the other moves in the order of their cells on the board.
+ * KILLER_HISTORY then tries the two killer moves of the ply, the latest moves that refuted another
+ * position at the same distance from the root, and the rest by their history: how often, and how
+ * deep, each cell refuted a position anywhere in the search so far.
+ * MOBILITY orders like KILLER_HISTORY, but at least two plies from the search horizon it tries
+ * the rest of the moves by how few replies they leave the opponent, playing every move to count
+ * them.
+ * SHALLOW_SEARCH orders like MOBILITY, but by how the evaluation of the search scores the
+ * position every move leads to, which is a search one ply deep.
+ */
+public enum MoveOrdering {
+  PLAIN, KILLER_HISTORY, MOBILITY, SHALLOW_SEARCH
+}
@@ -0,0 +1,196 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import model.BoardSnapshot;
+import model.Coordinate;
+import model.HexGeometry;
+import model.HexSymmetry;
+
+/**
+ * OpeningBook is a read-only view of an opening book file: for positions reached in the opening
+ * of many games, how often every move was played from them and how those games ended for the
+ * player who made it. Books are written by OpeningBookBuilder.
+ * Positions are stored in their canonical form under the symmetries of the board, as HexSymmetry
+ * computes it, so a position and its rotations and reflections share their entries, and so do the
+ * moves that map to each other.
+ * The file is a header (a magic number, the format version, the board size and the number of
+ * entries) followed by fixed-size entries sorted by canonical hash, then by move. Every entry
+ * holds the canonical hash of the position, the index in the board's HexGeometry of the move on
+ * the canonical image, as HexSymmetry.Canonical.canonicalMove() picks it, the number of games
+ * the move was played in, the points the mover scored in them (2 for a win, 1 for a draw) and the
+ * sum of their final disc differences for the mover.
+ * Opening a book maps the file into memory instead of reading it, so it takes the same time
+ * however large the book is, and the operating system shares the pages of the file between every
+ * process that opens the same book. A lookup is a binary search over the entries.
+ * An OpeningBook never changes after it is opened and may be used by many threads at once.
+ */
+public final class OpeningBook {
+  static final int MAGIC = 0x48584f42; // "HXOB"
+  static final int VERSION = 3;
+  static final int HEADER_BYTES = 16;
+  static final int ENTRY_BYTES = 24;
+  // the offsets of the fields within an entry
+  private static final int CELL = 8;
+  private static final int GAMES = 12;
+  private static final int POINTS = 16;
+  private static final int DISCS = 20;
+
+  private final ByteBuffer entries; // the mapped entries, without the header
+  private final int boardSize;
+  private final int size; // the number of entries
+  private final HexGeometry geometry;
+  private final HexSymmetry symmetry;
+
+  private OpeningBook(ByteBuffer entries, int boardSize, int size) {
+    this.entries = entries;
+    this.boardSize = boardSize;
+    this.size = size;
+    this.geometry = HexGeometry.of(boardSize);
+    this.symmetry = HexSymmetry.of(boardSize);
+  }
+
+  /**
+   * Opens the opening book in the given file by mapping it into memory. The file must not be
+   * changed while the book is in use.
+   *
+   * @param file the book file written by OpeningBookBuilder
+   * @return the book
+   * @throws IOException if the file cannot be read or does not hold a book in the format
+   */
+  public static OpeningBook open(Path file) throws IOException {
+    MappedByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (mapped.limit() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+            || mapped.getInt(4) != VERSION) {
+      throw new IOException("not an opening book of version " + VERSION);
+    }
+    int boardSize = mapped.getInt(8);
+    int size = mapped.getInt(12);
+    if (boardSize < 3 || size < 0
+            || mapped.limit() != HEADER_BYTES + (long) size * ENTRY_BYTES) {
+      throw new IOException("opening book has the wrong shape");
+    }
+    mapped.position(HEADER_BYTES);
+    return new OpeningBook(mapped.slice(), boardSize, size);
+  }
+
+  /**
+   * Returns the size of the boards the book is for.
+   */
+  public int getBoardSize() {
+    return boardSize;
+  }
+
+  /**
+   * Returns the number of entries of the book, one for every move of every position.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the moves the book knows for the given position or any of its symmetries, as moves
+   * of the given position, or an empty list if it knows none. Moves that are symmetries of each
+   * other in a symmetric position are one entry, returned as one of them.
+   *
+   * @param position the position to look up
+   * @return the entries of the position
+   * @throws IllegalArgumentException if the position is of another board size than the book
+   */
+  public List<Move> lookup(BoardSnapshot position) {
+    HexSymmetry.Canonical canonical = symmetry.canonicalize(position);
+    long hash = canonical.getHash();
+    int first = firstEntry(hash);
+    if (first < 0) {
+      return Collections.emptyList();
+    }
+    List<Move> moves = new ArrayList<>();
+    for (int entry = first; entry < size && hashAt(entry) == hash; entry++) {
+      int offset = entry * ENTRY_BYTES;
+      Coordinate move = geometry.coordinateAt(entries.getInt(offset + CELL));
+      moves.add(new Move(canonical.fromCanonical(move),
+              entries.getInt(offset + GAMES), entries.getInt(offset + POINTS),
+              entries.getInt(offset + DISCS)));
+    }
+    return moves;
+  }
+
+  /**
+   * Returns the first entry of the position with the given hash, or -1 if there is none.
+   */
+  private int firstEntry(long positionHash) {
+    int low = 0;
+    int high = size; // the first entry is in [low, high)
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (hashAt(middle) < positionHash) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low < size && hashAt(low) == positionHash ? low : -1;
+  }
+
+  private long hashAt(int entry) {
+    return entries.getLong(entry * ENTRY_BYTES);
+  }
+
+  /**
+   * Move is what an OpeningBook knows about one move from one position: how many games it was
+   * played in and how they ended for the player who made it.
+   */
+  public static final class Move {
+    private final Coordinate move;
+    private final int games;
+    private final int points;
+    private final int discs;
+
+    Move(Coordinate move, int games, int points, int discs) {
+      this.move = move;
+      this.games = games;
+      this.points = points;
+      this.discs = discs;
+    }
+
+    /**
+     * Returns the move.
+     */
+    public Coordinate getMove() {
+      return move;
+    }
+
+    /**
+     * Returns the number of games the move was played in.
+     */
+    public int getGames() {
+      return games;
+    }
+
+    /**
+     * Returns the share of the games the player who made the move won, counting draws as half.
+     */
+    public double getScore() {
+      return points / (2.0 * games);
+    }
+
+    /**
+     * Returns the average final disc difference of the games for the player who made the move.
+     */
+    public double getAverageDiscs() {
+      return (double) discs / games;
+    }
+  }
+}
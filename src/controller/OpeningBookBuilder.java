@@ -0,0 +1,157 @@
+package controller;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.HexGeometry;
+import model.HexSymmetry;
+import model.PlayColor;
+
+/**
+ * OpeningBookBuilder collects the moves of finished games into the statistics of an opening
+ * book and writes them in the format OpeningBook reads.
+ * Every game is replayed from the start, and every move of its first plies is counted for the
+ * canonical form of the position it was made from, as the move of the canonical image, with the
+ * result of the game for the player who made it. In a symmetric position, the moves that are
+ * symmetries of each other are counted as one, as HexSymmetry.Canonical.canonicalMove() picks
+ * it, so the first move of every game, for one, is counted in a single entry.
+ */
+public final class OpeningBookBuilder {
+  private final int boardSize;
+  private final int maxPlies; // the number of plies of every game counted
+  private final HexGeometry geometry;
+  private final HexSymmetry symmetry;
+  // the games, points and disc sum of every move of every position, by hash and cell
+  private final TreeMap<Long, TreeMap<Integer, long[]>> positions = new TreeMap<>();
+  private int games;
+
+  /**
+   * Constructs an OpeningBookBuilder for boards of the given size that counts the given number
+   * of plies of every game.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @param maxPlies  the number of plies from the start of every game that go into the book
+   * @throws IllegalArgumentException if the boardSize is less than 3 or maxPlies not positive
+   */
+  public OpeningBookBuilder(int boardSize, int maxPlies) {
+    if (boardSize < 3) {
+      throw new IllegalArgumentException("board size must be at least 3");
+    }
+    if (maxPlies <= 0) {
+      throw new IllegalArgumentException("the book must hold at least one ply");
+    }
+    this.boardSize = boardSize;
+    this.maxPlies = maxPlies;
+    this.geometry = HexGeometry.of(boardSize);
+    this.symmetry = HexSymmetry.of(boardSize);
+  }
+
+  /**
+   * Adds the moves of one finished game, from the start, to the book.
+   *
+   * @param moves the moves of the game in the order they were made, null for a pass
+   * @throws IllegalArgumentException if a move is not legal or the game is not over after them
+   */
+  public void addGame(List<Coordinate> moves) {
+    BasicReversi model = new BasicReversi(boardSize);
+    // the canonical form of the position before every counted move, null before a pass
+    HexSymmetry.Canonical[] canonical = new HexSymmetry.Canonical[Math.min(maxPlies,
+            moves.size())];
+    boolean[] black = new boolean[canonical.length];
+    for (int ply = 0; ply < moves.size(); ply++) {
+      Coordinate move = moves.get(ply);
+      if (ply < canonical.length && move != null) {
+        canonical[ply] = symmetry.canonicalize(model.snapshot());
+        black[ply] = model.getColor() == PlayColor.BLACK;
+      }
+      try {
+        if (move == null) {
+          model.pass();
+        } else {
+          model.move(move.getQ(), move.getR());
+        }
+      } catch (IllegalStateException e) {
+        throw new IllegalArgumentException("move " + ply + " of the game is not legal", e);
+      }
+    }
+    if (!model.isGameOver()) {
+      throw new IllegalArgumentException("the game is not over");
+    }
+    int discs = model.getScore(PlayColor.BLACK) - model.getScore(PlayColor.WHITE);
+    for (int ply = 0; ply < canonical.length; ply++) {
+      if (canonical[ply] == null) {
+        continue;
+      }
+      int mover = black[ply] ? discs : -discs;
+      Coordinate move = canonical[ply].canonicalMove(moves.get(ply));
+      long[] stats = positions.computeIfAbsent(canonical[ply].getHash(), hash -> new TreeMap<>())
+              .computeIfAbsent(geometry.indexOf(move.getQ(), move.getR()), cell -> new long[3]);
+      stats[0]++;
+      stats[1] += Integer.signum(mover) + 1;
+      stats[2] += mover;
+    }
+    this.games++;
+  }
+
+  /**
+   * Returns the number of games added.
+   */
+  public int getGames() {
+    return games;
+  }
+
+  /**
+   * Writes the book to the given file, leaving out the moves played in fewer than the given
+   * number of games.
+   *
+   * @param file     the file to write, replaced if it exists
+   * @param minGames the fewest games a move must have been played in to be written
+   * @return the number of entries written
+   * @throws IOException if the file cannot be written
+   */
+  public int write(Path file, int minGames) throws IOException {
+    int size = 0;
+    for (TreeMap<Integer, long[]> moves : positions.values()) {
+      for (long[] stats : moves.values()) {
+        if (stats[0] >= minGames) {
+          size++;
+        }
+      }
+    }
+    try (OutputStream out = Files.newOutputStream(file);
+         DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+      data.writeInt(OpeningBook.MAGIC);
+      data.writeInt(OpeningBook.VERSION);
+      data.writeInt(boardSize);
+      data.writeInt(size);
+      // a TreeMap orders the hashes as signed longs, as OpeningBook searches them
+      for (Map.Entry<Long, TreeMap<Integer, long[]>> position : positions.entrySet()) {
+        for (Map.Entry<Integer, long[]> move : position.getValue().entrySet()) {
+          long[] stats = move.getValue();
+          if (stats[0] < minGames) {
+            continue;
+          }
+          data.writeLong(position.getKey());
+          data.writeInt(move.getKey());
+          data.writeInt(saturate(stats[0]));
+          data.writeInt(saturate(stats[1]));
+          data.writeInt(saturate(stats[2]));
+        }
+      }
+    }
+    return size;
+  }
+
+  private static int saturate(long value) {
+    return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+  }
+}
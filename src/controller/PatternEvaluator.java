@@ -0,0 +1,119 @@
+package controller;
+
+import model.Cell;
+import model.HexGeometry;
+import model.MoveDelta;
+import model.PlayColor;
+import model.ReadOnlyReversiModel;
+
+/**
+ * PatternEvaluator scores the positions of one search with PatternWeights. It keeps the base-3
+ * index of every pattern instance of the board's PatternSet up to date as the search makes and
+ * unmakes moves, so scoring a position only takes one table lookup per instance.
+ * The search must call reset() with its board before the first move, apply() with the MoveDelta
+ * of every move right after making it and undo() with it right before unmaking it. Passes change
+ * nothing and need neither.
+ */
+final class PatternEvaluator {
+  private static final int[] DIGIT = new int[3]; // the base-3 digit of EMPTY, BLACK and WHITE
+
+  static {
+    DIGIT[Cell.EMPTY.ordinal()] = 0;
+    DIGIT[Cell.BLACK.ordinal()] = 1;
+    DIGIT[Cell.WHITE.ordinal()] = 2;
+  }
+
+  private final PatternWeights weights;
+  private final PatternSet patterns;
+  private final int cells; // the number of cells of the board
+  private final int[] index; // the current index of every pattern instance
+
+  /**
+   * Constructs a PatternEvaluator that scores positions with the given weights.
+   */
+  PatternEvaluator(PatternWeights weights) {
+    this.weights = weights;
+    this.patterns = PatternSet.of(weights.getBoardSize());
+    this.cells = HexGeometry.of(weights.getBoardSize()).cellCount();
+    this.index = new int[patterns.instanceCount()];
+  }
+
+  /**
+   * Computes the index of every pattern instance from the cells of the given board.
+   *
+   * @throws IllegalArgumentException if the board is not of the size the weights are for
+   */
+  void reset(ReadOnlyReversiModel board) {
+    if (board.getBoardSize() != patterns.boardSize) {
+      throw new IllegalArgumentException("pattern weights are for another board size");
+    }
+    HexGeometry geometry = HexGeometry.of(board.getBoardSize());
+    for (int instance = 0; instance < index.length; instance++) {
+      int value = 0;
+      int[] members = patterns.instanceCells[instance];
+      for (int i = members.length - 1; i >= 0; i--) {
+        Cell cell = board.getCell(geometry.qOf(members[i]), geometry.rOf(members[i]));
+        value = 3 * value + DIGIT[cell.ordinal()];
+      }
+      index[instance] = value;
+    }
+  }
+
+  /**
+   * Updates the indices for the move the given MoveDelta records, just made.
+   */
+  void apply(MoveDelta delta) {
+    update(delta, 1);
+  }
+
+  /**
+   * Updates the indices for the move the given MoveDelta records, about to be unmade.
+   */
+  void undo(MoveDelta delta) {
+    update(delta, -1);
+  }
+
+  private void update(MoveDelta delta, int sign) {
+    if (delta.isPass()) {
+      return;
+    }
+    int mover = delta.getPreviousTurn() == PlayColor.BLACK ? 1 : 2;
+    // a placed disc turns a 0 digit into the mover's, a flipped one the other digit into it
+    add(delta.getPlaced(), sign * mover);
+    int flip = sign * (mover == 1 ? -1 : 1);
+    for (int i = 0; i < delta.flippedCount(); i++) {
+      add(delta.flippedCell(i), flip);
+    }
+  }
+
+  private void add(int cell, int digitChange) {
+    int[] instances = patterns.cellInstances[cell];
+    int[] powers = patterns.cellPowers[cell];
+    for (int i = 0; i < instances.length; i++) {
+      index[instances[i]] += digitChange * powers[i];
+    }
+  }
+
+  /**
+   * Returns the worth of the position on the given board for the given player, in
+   * PatternWeights.SCALE units per disc.
+   */
+  int evaluate(ReadOnlyReversiModel board, PlayColor player) {
+    int discs = board.getScore(PlayColor.BLACK) + board.getScore(PlayColor.WHITE);
+    int stage = PatternWeights.stageOf(discs, cells);
+    short[][] tables = weights.tables[stage];
+    int value = weights.mobility[stage]
+            * (board.getMobility(PlayColor.BLACK) - board.getMobility(PlayColor.WHITE));
+    for (int instance = 0; instance < index.length; instance++) {
+      value += tables[patterns.instancePattern[instance]][index[instance]];
+    }
+    return player == PlayColor.BLACK ? value : -value;
+  }
+
+  /**
+   * Returns the current index of the given pattern instance.
+   */
+  int indexOf(int instance) {
+    return index[instance];
+  }
+}
@@ -0,0 +1,166 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.HexGeometry;
+
+/**
+ * PatternSet lists the groups of cells a pattern evaluation looks at on a board of one size.
+ * There are three patterns, each with six instances, one for every corner or edge of the board,
+ * that share one weight table:
+ * CORNER holds a corner and every cell of the board at most two steps from it,
+ * EDGE holds the cells of an edge, from one corner to the next, and
+ * INNER_EDGE holds the cells of the line parallel to an edge, one step further in.
+ * The instances of a pattern are rotations of each other by a sixth of a turn, and list their
+ * cells in the same order, so the same arrangement of discs gets the same index in every
+ * instance. An instance is indexed in base 3, its i-th cell adding 3^i times 0 for EMPTY, 1 for
+ * BLACK or 2 for WHITE.
+ * A PatternSet is immutable and shared by every evaluation of its board size.
+ */
+final class PatternSet {
+  static final int CORNER = 0;
+  static final int EDGE = 1;
+  static final int INNER_EDGE = 2;
+  static final int PATTERNS = 3;
+  static final int ROTATIONS = 6;
+
+  private static final Map<Integer, PatternSet> SETS = new ConcurrentHashMap<>();
+  private static final int[] EMPTY_LIST = new int[0];
+
+  final int boardSize;
+  final int[] patternLength; // the number of cells in every pattern
+  final int[] tableLength; // the number of indices of every pattern, 3 to the power of its length
+  final int[][] instanceCells; // the cell indices of every instance, in the order of its digits
+  final int[] instancePattern; // the pattern every instance belongs to
+  final int[][] cellInstances; // the instances every cell of the board belongs to
+  final int[][] cellPowers; // the power of 3 every cell has in each of those instances
+
+  private PatternSet(int boardSize) {
+    HexGeometry geometry = HexGeometry.of(boardSize);
+    this.boardSize = boardSize;
+    int edge = boardSize - 1;
+    List<int[]> canonical = new ArrayList<>(); // axial q and r of the cells of every pattern
+    canonical.add(cornerRegion(geometry, edge));
+    canonical.add(line(edge));
+    canonical.add(line(edge - 1));
+
+    this.patternLength = new int[PATTERNS];
+    this.tableLength = new int[PATTERNS];
+    this.instanceCells = new int[PATTERNS * ROTATIONS][];
+    this.instancePattern = new int[PATTERNS * ROTATIONS];
+    for (int pattern = 0; pattern < PATTERNS; pattern++) {
+      int[] axial = canonical.get(pattern);
+      patternLength[pattern] = axial.length / 2;
+      tableLength[pattern] = power(patternLength[pattern]);
+      for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+        int[] cells = new int[axial.length / 2];
+        for (int i = 0; i < cells.length; i++) {
+          int q = axial[2 * i];
+          int r = axial[2 * i + 1];
+          for (int turn = 0; turn < rotation; turn++) {
+            int rotated = -r;
+            r = q + r;
+            q = rotated;
+          }
+          cells[i] = geometry.indexOf(q, r);
+        }
+        int instance = pattern * ROTATIONS + rotation;
+        instanceCells[instance] = cells;
+        instancePattern[instance] = pattern;
+      }
+    }
+
+    int[] counts = new int[geometry.cellCount()];
+    for (int[] cells : instanceCells) {
+      for (int cell : cells) {
+        counts[cell]++;
+      }
+    }
+    this.cellInstances = new int[geometry.cellCount()][];
+    this.cellPowers = new int[geometry.cellCount()][];
+    for (int cell = 0; cell < counts.length; cell++) {
+      cellInstances[cell] = counts[cell] == 0 ? EMPTY_LIST : new int[counts[cell]];
+      cellPowers[cell] = counts[cell] == 0 ? EMPTY_LIST : new int[counts[cell]];
+      counts[cell] = 0;
+    }
+    for (int instance = 0; instance < instanceCells.length; instance++) {
+      int[] cells = instanceCells[instance];
+      for (int i = 0; i < cells.length; i++) {
+        int cell = cells[i];
+        cellInstances[cell][counts[cell]] = instance;
+        cellPowers[cell][counts[cell]] = power(i);
+        counts[cell]++;
+      }
+    }
+  }
+
+  /**
+   * Returns the PatternSet for boards of the given size, building it on first use.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @return the shared PatternSet for that size
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  static PatternSet of(int boardSize) {
+    if (boardSize < 3) {
+      throw new IllegalArgumentException("board size must be at least 3");
+    }
+    return SETS.computeIfAbsent(boardSize, PatternSet::new);
+  }
+
+  /**
+   * Returns the number of pattern instances.
+   */
+  int instanceCount() {
+    return instanceCells.length;
+  }
+
+  /**
+   * Returns the axial coordinates of the corner at q = edge, r = 0 and of every cell of the
+   * board at most two steps from it, nearest first.
+   */
+  private static int[] cornerRegion(HexGeometry geometry, int edge) {
+    List<int[]> cells = new ArrayList<>();
+    for (int q = edge - 2; q <= edge; q++) {
+      for (int r = -2; r <= 2; r++) {
+        int distance = (Math.abs(q - edge) + Math.abs(r) + Math.abs(q + r - edge)) / 2;
+        if (distance <= 2 && geometry.indexOf(q, r) >= 0) {
+          cells.add(new int[] {q, r, distance});
+        }
+      }
+    }
+    cells.sort(Comparator.<int[]>comparingInt(cell -> cell[2])
+            .thenComparingInt(cell -> cell[1]).thenComparingInt(cell -> cell[0]));
+    int[] axial = new int[2 * cells.size()];
+    for (int i = 0; i < cells.size(); i++) {
+      axial[2 * i] = cells.get(i)[0];
+      axial[2 * i + 1] = cells.get(i)[1];
+    }
+    return axial;
+  }
+
+  /**
+   * Returns the axial coordinates of the cells from q = radius, r = 0 to q = 0, r = radius, the
+   * side of the ring of cells at the given distance from the center.
+   */
+  private static int[] line(int radius) {
+    int[] axial = new int[2 * (radius + 1)];
+    for (int i = 0; i <= radius; i++) {
+      axial[2 * i] = radius - i;
+      axial[2 * i + 1] = i;
+    }
+    return axial;
+  }
+
+  private static int power(int exponent) {
+    int result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= 3;
+    }
+    return result;
+  }
+}
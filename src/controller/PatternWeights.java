@@ -0,0 +1,170 @@
+package controller;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import model.PlayColor;
+import model.ReadOnlyReversiModel;
+
+/**
+ * PatternWeights holds the weight tables of a pattern evaluation for boards of one size: for every
+ * stage of the game and every pattern of the board's PatternSet, the worth of every arrangement of
+ * discs the pattern can hold, and the worth of having one more legal move than the opponent.
+ * Weights are worth for BLACK, in sixteenths of a disc of the final disc difference, and stored as
+ * shorts. The stage of a position is the share of the board's cells that hold a disc, split into
+ * {@link #STAGES} equal parts.
+ * Weights are written to and read from a compact binary format: a gzip stream of a header (a
+ * magic number, the format version, the board size and the number of stages) followed by the
+ * mobility weight and the tables of every stage, each table as its length and its shorts.
+ * Weights trained for some board sizes are bundled with the class and loaded by
+ * {@link #forBoardSize(int)}.
+ */
+public final class PatternWeights {
+  /**
+   * The number of stages the game is split into, each with weights of its own.
+   */
+  public static final int STAGES = 4;
+  /**
+   * The number of weight units that make up one disc.
+   */
+  public static final int SCALE = 16;
+
+  private static final int MAGIC = 0x48585057; // "HXPW"
+  private static final int VERSION = 1;
+
+  private final int boardSize; // the size of the boards the weights are for
+  final short[][][] tables; // the weight of every index of every pattern at every stage
+  final short[] mobility; // the weight of one more legal move at every stage
+
+  /**
+   * Constructs PatternWeights for boards of the given size with every weight zero.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  public PatternWeights(int boardSize) {
+    PatternSet patterns = PatternSet.of(boardSize);
+    this.boardSize = boardSize;
+    this.tables = new short[STAGES][PatternSet.PATTERNS][];
+    this.mobility = new short[STAGES];
+    for (int stage = 0; stage < STAGES; stage++) {
+      for (int pattern = 0; pattern < PatternSet.PATTERNS; pattern++) {
+        tables[stage][pattern] = new short[patterns.tableLength[pattern]];
+      }
+    }
+  }
+
+  /**
+   * Returns the weights bundled for boards of the given size.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @return the bundled weights for that size
+   * @throws IllegalArgumentException if no weights are bundled for that size
+   * @throws IllegalStateException    if the bundled weights cannot be read
+   */
+  public static PatternWeights forBoardSize(int boardSize) {
+    InputStream in = PatternWeights.class.getResourceAsStream("patterns-" + boardSize + ".bin");
+    if (in == null) {
+      throw new IllegalArgumentException("no pattern weights for board size " + boardSize);
+    }
+    try (InputStream bundled = in) {
+      return read(bundled);
+    } catch (IOException e) {
+      throw new IllegalStateException("cannot read the pattern weights for board size "
+              + boardSize, e);
+    }
+  }
+
+  /**
+   * Reads weights in the binary format from the given stream. The stream is left open, but
+   * may have been read past the end of the weights.
+   *
+   * @param in the stream to read from
+   * @return the weights read
+   * @throws IOException if the stream cannot be read or does not hold weights in the format
+   */
+  public static PatternWeights read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new GZIPInputStream(in));
+    if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+      throw new IOException("not a pattern weight file of version " + VERSION);
+    }
+    int size = data.readInt();
+    if (size < 3 || data.readInt() != STAGES) {
+      throw new IOException("pattern weight file has the wrong shape");
+    }
+    PatternWeights weights = new PatternWeights(size);
+    for (int stage = 0; stage < STAGES; stage++) {
+      weights.mobility[stage] = data.readShort();
+      for (short[] table : weights.tables[stage]) {
+        if (data.readInt() != table.length) {
+          throw new IOException("pattern weight file has the wrong shape");
+        }
+        for (int i = 0; i < table.length; i++) {
+          table[i] = data.readShort();
+        }
+      }
+    }
+    return weights;
+  }
+
+  /**
+   * Writes the weights in the binary format to the given stream, which is left open.
+   *
+   * @param out the stream to write to
+   * @throws IOException if the stream cannot be written to
+   */
+  public void write(OutputStream out) throws IOException {
+    GZIPOutputStream zipped = new GZIPOutputStream(out);
+    DataOutputStream data = new DataOutputStream(zipped);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(boardSize);
+    data.writeInt(STAGES);
+    for (int stage = 0; stage < STAGES; stage++) {
+      data.writeShort(mobility[stage]);
+      for (short[] table : tables[stage]) {
+        data.writeInt(table.length);
+        for (short weight : table) {
+          data.writeShort(weight);
+        }
+      }
+    }
+    data.flush();
+    zipped.finish();
+  }
+
+  /**
+   * Returns the size of the boards the weights are for.
+   */
+  public int getBoardSize() {
+    return boardSize;
+  }
+
+  /**
+   * Returns the worth for BLACK of the position of the given model, as the pattern evaluation of
+   * AlphaBetaStrategy scores it, in SCALE units per disc. Every pattern index is computed from
+   * the cells of the model, so this is meant for checking and tools, not for searches.
+   *
+   * @param board the model holding the position
+   * @return the worth of the position for BLACK
+   * @throws IllegalArgumentException if the model is of another board size than the weights
+   */
+  public int evaluate(ReadOnlyReversiModel board) {
+    PatternEvaluator evaluator = new PatternEvaluator(this);
+    evaluator.reset(board);
+    return evaluator.evaluate(board, PlayColor.BLACK);
+  }
+
+  /**
+   * Returns the stage of a position with the given number of discs on a board with the given
+   * number of cells.
+   */
+  static int stageOf(int discs, int cells) {
+    return Math.min(STAGES - 1, discs * STAGES / cells);
+  }
+}
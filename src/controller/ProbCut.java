@@ -0,0 +1,237 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProbCut holds what AlphaBetaStrategy needs to prune selectively on boards of one size with one
+ * evaluation: for every calibrated depth, the depth of a shallow search and how the value of the
+ * deep search follows from it. The deep value v is modelled as slope * v' + intercept plus an
+ * error with the given standard deviation, v' being the value of the shallow search. Before
+ * searching a position deep, the strategy asks whether the shallow search alone shows the value is
+ * beyond the window by more than the given number of standard deviations, and if so, cuts it
+ * without searching it deep. See AlphaBetaStrategy#withProbCut(double).
+ * Calibrations are fitted to self-play searches and written to and read from a small text
+ * format: a line "size n", a line "evaluation discs" or "evaluation patterns", then one line per
+ * calibrated depth of the depth, the shallow depth, the slope, the intercept and the standard
+ * deviation, in evaluation units. Lines starting with # are comments.
+ * Calibrations for some board sizes are bundled with the class and loaded by
+ * {@link #forEvaluation(int, boolean)}.
+ */
+public final class ProbCut {
+  /**
+   * The shallowest depth that is ever cut selectively.
+   */
+  public static final int MIN_DEPTH = 3;
+
+  private static final Map<String, ProbCut> BUNDLED = new ConcurrentHashMap<>();
+  private static final ProbCut NONE = new ProbCut(3, false); // marks a size without calibration
+
+  private final int boardSize;
+  private final boolean patterns; // whether the values are of the pattern evaluation
+  private int[] shallow = new int[0]; // the shallow depth of every depth, or -1
+  private double[] slope = new double[0];
+  private double[] intercept = new double[0];
+  private double[] deviation = new double[0];
+
+  /**
+   * Constructs a ProbCut for boards of the given size and the given evaluation with no depth
+   * calibrated yet.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @param patterns  whether the values are of the pattern evaluation rather than of discs,
+   *                  legal moves and corners
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  public ProbCut(int boardSize, boolean patterns) {
+    if (boardSize < 3) {
+      throw new IllegalArgumentException("board size must be at least 3");
+    }
+    this.boardSize = boardSize;
+    this.patterns = patterns;
+  }
+
+  /**
+   * Returns the calibration bundled for boards of the given size and the given evaluation.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @param patterns  whether the calibration is for the pattern evaluation
+   * @return the bundled calibration
+   * @throws IllegalArgumentException if no calibration is bundled for them
+   * @throws IllegalStateException    if the bundled calibration cannot be read
+   */
+  public static ProbCut forEvaluation(int boardSize, boolean patterns) {
+    ProbCut bundled = bundled(boardSize, patterns);
+    if (bundled == null) {
+      throw new IllegalArgumentException("no ProbCut calibration for board size " + boardSize);
+    }
+    return bundled;
+  }
+
+  /**
+   * Returns the calibration bundled for boards of the given size and the given evaluation, or
+   * null if there is none, reading it only once.
+   */
+  static ProbCut bundled(int boardSize, boolean patterns) {
+    String name = "probcut-" + (patterns ? "patterns-" : "") + boardSize + ".txt";
+    ProbCut bundled = BUNDLED.computeIfAbsent(name, key -> {
+      InputStream in = ProbCut.class.getResourceAsStream(key);
+      if (in == null) {
+        return NONE;
+      }
+      try (InputStream calibration = in) {
+        return read(calibration);
+      } catch (IOException e) {
+        throw new IllegalStateException("cannot read the ProbCut calibration " + key, e);
+      }
+    });
+    return bundled == NONE ? null : bundled;
+  }
+
+  /**
+   * Reads a calibration in the text format from the given stream, which is left open.
+   *
+   * @param in the stream to read from
+   * @return the calibration read
+   * @throws IOException if the stream cannot be read or does not hold a calibration
+   */
+  public static ProbCut read(InputStream in) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in,
+            StandardCharsets.UTF_8));
+    ProbCut cuts = null;
+    int size = -1;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split("\\s+");
+      try {
+        if (fields[0].equals("size") && fields.length == 2 && cuts == null) {
+          size = Integer.parseInt(fields[1]);
+        } else if (fields[0].equals("evaluation") && fields.length == 2 && size >= 3
+                && cuts == null && (fields[1].equals("discs") || fields[1].equals("patterns"))) {
+          cuts = new ProbCut(size, fields[1].equals("patterns"));
+        } else if (fields.length == 5 && cuts != null) {
+          cuts.set(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                  Double.parseDouble(fields[2]), Double.parseDouble(fields[3]),
+                  Double.parseDouble(fields[4]));
+        } else {
+          throw new IOException("not a ProbCut calibration line: " + line);
+        }
+      } catch (IllegalArgumentException e) {
+        throw new IOException("not a ProbCut calibration line: " + line, e);
+      }
+    }
+    if (cuts == null) {
+      throw new IOException("not a ProbCut calibration");
+    }
+    return cuts;
+  }
+
+  /**
+   * Writes the calibration in the text format to the given stream, which is left open.
+   *
+   * @param out the stream to write to
+   */
+  public void write(OutputStream out) {
+    PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writer.println("# depth, shallow depth, slope, intercept, standard deviation");
+    writer.println("size " + boardSize);
+    writer.println("evaluation " + (patterns ? "patterns" : "discs"));
+    for (int depth = 0; depth < shallow.length; depth++) {
+      if (shallow[depth] >= 0) {
+        writer.printf(Locale.ROOT, "%d %d %.4f %.4f %.4f%n", depth, shallow[depth],
+                slope[depth], intercept[depth], deviation[depth]);
+      }
+    }
+    writer.flush();
+  }
+
+  /**
+   * Calibrates the given depth: the deep value is slope times the value of a search to the
+   * shallow depth, plus the intercept, give or take the standard deviation.
+   *
+   * @throws IllegalArgumentException if the depth is less than MIN_DEPTH, the shallow depth is
+   *                                  not positive or not less than the depth, or the slope or
+   *                                  the deviation is not positive
+   */
+  void set(int depth, int shallowDepth, double slope, double intercept, double deviation) {
+    if (depth < MIN_DEPTH || shallowDepth <= 0 || shallowDepth >= depth) {
+      throw new IllegalArgumentException("shallow depth must be between 0 and the depth");
+    }
+    if (!(slope > 0) || !(deviation > 0) || Double.isNaN(intercept)) {
+      throw new IllegalArgumentException("slope and deviation must be positive");
+    }
+    if (depth >= shallow.length) {
+      int length = depth + 1;
+      int old = shallow.length;
+      this.shallow = Arrays.copyOf(shallow, length);
+      Arrays.fill(shallow, old, length, -1);
+      this.slope = Arrays.copyOf(this.slope, length);
+      this.intercept = Arrays.copyOf(this.intercept, length);
+      this.deviation = Arrays.copyOf(this.deviation, length);
+    }
+    this.shallow[depth] = shallowDepth;
+    this.slope[depth] = slope;
+    this.intercept[depth] = intercept;
+    this.deviation[depth] = deviation;
+  }
+
+  /**
+   * Returns the depth of the shallow search of the given depth, or -1 if the depth is not
+   * calibrated.
+   */
+  int shallowDepth(int depth) {
+    return depth < shallow.length ? shallow[depth] : -1;
+  }
+
+  double slope(int depth) {
+    return slope[depth];
+  }
+
+  double intercept(int depth) {
+    return intercept[depth];
+  }
+
+  double deviation(int depth) {
+    return deviation[depth];
+  }
+
+  /**
+   * Returns the size of the boards the calibration is for.
+   */
+  public int getBoardSize() {
+    return boardSize;
+  }
+
+  /**
+   * Returns whether the calibration is for the pattern evaluation.
+   */
+  public boolean isForPatterns() {
+    return patterns;
+  }
+
+  /**
+   * Returns the depth of the shallow search the calibration tool pairs with the given depth:
+   * two plies less up to depth 5, then the same parity as the depth, about half as deep, since
+   * searches ending on a move of the same player compare best.
+   */
+  public static int shallowDepthFor(int depth) {
+    if (depth <= 5) {
+      return depth - 2;
+    }
+    return depth / 2 % 2 == depth % 2 ? depth / 2 : depth / 2 + 1;
+  }
+}
@@ -12,8 +12,37 @@ public interface ReversiStrategies {
   /**
    * This returns the coordinate for the most "ideal" move according to whatever.
    * Strategy one chooses.
-   * The ReversiModel passed into this method is an alias and not the actual model.
-   * Therefore, no mutation will occur.
+   * Strategies may try moves on the given model with makeMove(), but must take every one of them
+   * back with unmakeMove(), so the model is left exactly as it was given.
    */
   Coordinate decideMove(ReversiModel model);
+
+  /**
+   * Starts thinking, in the background, about the position of the given model while the
+   * opponent is to move in it, so that the next decideMove() can use what was found.
+   * Strategies that cannot think ahead ignore this.
+   */
+  default void ponder(ReversiModel model) {
+  }
+
+  /**
+   * Stops any thinking started by ponder().
+   */
+  default void stopPondering() {
+  }
+
+  /**
+   * Returns a strategy that decides like this one but prunes its search selectively, cutting
+   * lines a shallow search shows a deep one would very likely cut, with the given confidence in
+   * standard deviations: the smaller, the more aggressive. Strategies that do not search a game
+   * tree return themselves.
+   *
+   * @throws IllegalArgumentException if the confidence is negative or NaN
+   */
+  default ReversiStrategies withProbCut(double confidence) {
+    if (!(confidence >= 0)) {
+      throw new IllegalArgumentException("confidence must not be negative");
+    }
+    return this;
+  }
 }
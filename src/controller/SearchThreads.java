@@ -0,0 +1,28 @@
+package controller;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * SearchThreads holds the one ForkJoinPool of the process that the helper threads of every
+ * parallel strategy and the pondering of every AlphaBetaStrategy run on, so that strategies own
+ * no threads and need not be closed when they are dropped. The pool has a worker for every
+ * processor, and at least two, so pondering and a search can run side by side. Its workers are
+ * daemon threads that end by themselves once idle, so they never keep the program from ending.
+ * A strategy that asks for more threads than the pool has free workers still searches correctly:
+ * its other helpers start once a worker is free, and stop as soon as they notice the move is
+ * decided.
+ */
+final class SearchThreads {
+  private static final ForkJoinPool POOL =
+          new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+  private SearchThreads() {
+  }
+
+  /**
+   * Returns the pool every search shares.
+   */
+  static ForkJoinPool pool() {
+    return POOL;
+  }
+}
@@ -0,0 +1,16 @@
+package controller;
+
+/**
+ * An Enumeration of the windows AlphaBetaStrategy can search the moves of a position with.
+ * FULL searches every move with the window left by the moves before it.
+ * PRINCIPAL_VARIATION searches the first move of every position that way, and every other move
+ * with a null window, only proving that it is no better than the best so far, which prunes more.
+ * A move that turns out better is searched again with the full window to get its value.
+ * ASPIRATION searches like PRINCIPAL_VARIATION, but starts every depth of the iterative deepening
+ * with a narrow window around the value of the depth two before it, which ended on a move of the
+ * same player. If the value falls outside it, the depth is searched again with the window widened
+ * on that side, wider every time, until it holds.
+ */
+public enum SearchWindow {
+  FULL, PRINCIPAL_VARIATION, ASPIRATION
+}
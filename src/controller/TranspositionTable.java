@@ -0,0 +1,246 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TranspositionTable remembers what a tree search learned about positions it already searched,
+ * keyed by the position hash of the model, so a position reached again through another order of
+ * moves does not have to be searched again.
+ * Every entry holds the depth the position was searched to, whether the score is exact or only a
+ * lower or upper bound, the score itself and the index of the best move found in the board's
+ * HexGeometry. Entries are packed into two longs of one preallocated long array, so the table
+ * never allocates after construction.
+ * The table is split into buckets of two entries. A position may be stored in either entry of its
+ * bucket, and a new position replaces the entry that is worth less: one left over from an
+ * earlier search, or else the one searched to the smaller depth.
+ * Several search threads may probe and store at the same time without locking. Every entry is
+ * stored as its data and as its key XORed with its data, so an entry half overwritten by another
+ * thread no longer matches its key and reads as a miss instead of as wrong data.
+ */
+public final class TranspositionTable {
+  /**
+   * The bound type of a score that is the exact value of the position.
+   */
+  public static final int EXACT = 0;
+  /**
+   * The bound type of a score that the value of the position is at least.
+   */
+  public static final int LOWER = 1;
+  /**
+   * The bound type of a score that the value of the position is at most.
+   */
+  public static final int UPPER = 2;
+  /**
+   * The largest depth an entry can record.
+   */
+  public static final int MAX_DEPTH = 255;
+  /**
+   * The value probe() returns when the table knows nothing about a position.
+   */
+  public static final long MISS = 0;
+
+  private static final int BUCKET = 2; // entries per bucket
+  private static final int LONGS_PER_ENTRY = 2; // the key XORed with the data, then the data
+  // the layout of the data long, from the lowest bit: 32 bits of score, 8 bits of depth, 2 bits
+  // of bound type, 16 bits of move index plus one, 5 bits of generation and a bit that is always
+  // set, so that stored data is never MISS
+  private static final int DEPTH_SHIFT = 32;
+  private static final int BOUND_SHIFT = 40;
+  private static final int MOVE_SHIFT = 42;
+  private static final int GENERATION_SHIFT = 58;
+  private static final long PRESENT = 1L << 63;
+  private static final int GENERATIONS = 32;
+
+  private final long[] entries; // BUCKET entries of LONGS_PER_ENTRY longs for every bucket
+  private final int bucketMask; // the number of buckets minus one, which is a power of two
+  private volatile int generation; // the search that new entries are stored for
+  private final LongAdder probes = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder stores = new LongAdder();
+
+  /**
+   * Constructs a TranspositionTable that takes up at most the given number of megabytes. The
+   * number of buckets is the largest power of two that fits.
+   *
+   * @param megabytes the memory the table may use, in megabytes
+   * @throws IllegalArgumentException if the size is not positive
+   */
+  public TranspositionTable(int megabytes) {
+    if (megabytes <= 0) {
+      throw new IllegalArgumentException("table size must be positive");
+    }
+    long bytesPerBucket = (long) BUCKET * LONGS_PER_ENTRY * Long.BYTES;
+    long buckets = Long.highestOneBit(megabytes * 1024L * 1024L / bytesPerBucket);
+    // a Java array holds fewer than 2^31 longs
+    buckets = Math.min(buckets, 1L << 29);
+    this.entries = new long[(int) buckets * BUCKET * LONGS_PER_ENTRY];
+    this.bucketMask = (int) buckets - 1;
+  }
+
+  /**
+   * Looks the position with the given hash up.
+   *
+   * @param hash the position hash of the model
+   * @return the packed entry of the position, to be read with the static getters, or
+   *         {@link #MISS} if the table holds nothing about the position
+   */
+  public long probe(long hash) {
+    probes.increment();
+    int base = bucketOf(hash);
+    for (int slot = base; slot < base + BUCKET * LONGS_PER_ENTRY; slot += LONGS_PER_ENTRY) {
+      long data = entries[slot + 1];
+      if ((entries[slot] ^ data) == hash && data != MISS) {
+        hits.increment();
+        return data;
+      }
+    }
+    return MISS;
+  }
+
+  /**
+   * Records what a search learned about the position with the given hash.
+   *
+   * @param hash  the position hash of the model
+   * @param depth the depth the position was searched to, at most {@link #MAX_DEPTH}
+   * @param bound EXACT, LOWER or UPPER
+   * @param score the score of the position for the player to move
+   * @param move  the index of the best move found, or -1 if there is none
+   */
+  public void store(long hash, int depth, int bound, int score, int move) {
+    stores.increment();
+    int current = generation;
+    long data = PRESENT
+            | ((long) current << GENERATION_SHIFT)
+            | ((long) (move + 1) << MOVE_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT)
+            | (score & 0xFFFF_FFFFL);
+    int base = bucketOf(hash);
+    int victim = base;
+    int victimWorth = Integer.MAX_VALUE;
+    for (int slot = base; slot < base + BUCKET * LONGS_PER_ENTRY; slot += LONGS_PER_ENTRY) {
+      long old = entries[slot + 1];
+      if ((entries[slot] ^ old) == hash || old == MISS) {
+        victim = slot; // the same position, or a free entry
+        break;
+      }
+      // entries of earlier searches are worth less than any entry of this one
+      int worth = depthOf(old) + (generationOf(old) == current ? MAX_DEPTH + 1 : 0);
+      if (worth < victimWorth) {
+        victimWorth = worth;
+        victim = slot;
+      }
+    }
+    entries[victim] = hash ^ data;
+    entries[victim + 1] = data;
+  }
+
+  /**
+   * Tells the table a new search starts, so that the entries of earlier searches are the first
+   * to be replaced. They can still be found until they are.
+   */
+  public void newSearch() {
+    generation = (generation + 1) % GENERATIONS;
+  }
+
+  /**
+   * Empties the table and resets its statistics.
+   */
+  public void clear() {
+    Arrays.fill(entries, 0);
+    probes.reset();
+    hits.reset();
+    stores.reset();
+  }
+
+  /**
+   * Returns the number of entries the table can hold.
+   */
+  public int capacity() {
+    return entries.length / LONGS_PER_ENTRY;
+  }
+
+  /**
+   * Returns how many times probe() was called since the table was built or cleared.
+   */
+  public long getProbes() {
+    return probes.sum();
+  }
+
+  /**
+   * Returns how many probes found their position since the table was built or cleared.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns how many times store() was called since the table was built or cleared.
+   */
+  public long getStores() {
+    return stores.sum();
+  }
+
+  /**
+   * Returns the share of the probes that found their position, from 0 to 1.
+   */
+  public double getHitRate() {
+    long probed = probes.sum();
+    return probed == 0 ? 0 : (double) hits.sum() / probed;
+  }
+
+  /**
+   * Returns the share of the entries that hold a position of the current search, from 0 to 1,
+   * estimated from the first thousand buckets so that it can be asked for during a search.
+   */
+  public double getFill() {
+    int current = generation;
+    int sampled = Math.min(entries.length, 1000 * BUCKET * LONGS_PER_ENTRY);
+    int used = 0;
+    for (int slot = 0; slot < sampled; slot += LONGS_PER_ENTRY) {
+      long data = entries[slot + 1];
+      if (data != MISS && generationOf(data) == current) {
+        used++;
+      }
+    }
+    return (double) used / (sampled / LONGS_PER_ENTRY);
+  }
+
+  private int bucketOf(long hash) {
+    // the low bits of the hash pick the bucket, the whole hash is the key within it
+    return ((int) hash & bucketMask) * BUCKET * LONGS_PER_ENTRY;
+  }
+
+  /**
+   * Returns the score of a packed entry.
+   */
+  public static int scoreOf(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * Returns the depth the position of a packed entry was searched to.
+   */
+  public static int depthOf(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+  }
+
+  /**
+   * Returns the bound type of the score of a packed entry: EXACT, LOWER or UPPER.
+   */
+  public static int boundOf(long entry) {
+    return (int) (entry >>> BOUND_SHIFT) & 0x3;
+  }
+
+  /**
+   * Returns the index of the best move of a packed entry, or -1 if it has none.
+   */
+  public static int moveOf(long entry) {
+    return ((int) (entry >>> MOVE_SHIFT) & 0xFFFF) - 1;
+  }
+
+  private static int generationOf(long entry) {
+    return (int) (entry >>> GENERATION_SHIFT) & (GENERATIONS - 1);
+  }
+}
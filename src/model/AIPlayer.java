@@ -7,10 +7,15 @@ import controller.ReversiStrategies;
 /**
  * model.AIPlayer represents an AI player. this is a distinction between a normal, human player.
  * as of right now, this is a stub implementation, but more stuff can be added as specs increase.
+ * An AIPlayer may be given a second strategy for the endgame, such as controller.EndgameSolver,
+ * which it switches to once few enough cells are EMPTY.
+ * While the opponent is to move, the AIPlayer lets the strategy it will move with ponder.
  */
 public class AIPlayer implements Player {
   private PlayColor color;
   private final ReversiStrategies strategy;
+  private final ReversiStrategies endgame; // the strategy for the endgame, or null
+  private final int emptyThreshold; // the most EMPTY cells the endgame strategy plays with
 
 
   /**
@@ -19,6 +24,61 @@ public class AIPlayer implements Player {
   public AIPlayer(ReversiStrategies s) {
     this.color = null;
     this.strategy = s;
+    this.endgame = null;
+    this.emptyThreshold = 0;
+  }
+
+  /**
+   * This constructor initializes an AIPlayer whose strategy prunes its search selectively with
+   * the given confidence, as ReversiStrategies.withProbCut() describes. The smaller the
+   * confidence, the more the search prunes and the deeper it gets in the same time; around 1.5
+   * makes a strong player.
+   *
+   * @param s          the strategy to prune selectively
+   * @param confidence the standard deviations a shallow search must clear to cut a line
+   * @throws IllegalArgumentException if the confidence is negative or NaN
+   */
+  public AIPlayer(ReversiStrategies s, double confidence) {
+    this(s.withProbCut(confidence));
+  }
+
+  /**
+   * This constructor initializes an AIPlayer that plays with the first strategy until at most the
+   * given number of cells are EMPTY, and with the endgame strategy from then on.
+   *
+   * @param s              the strategy for the rest of the game
+   * @param endgame        the strategy once at most emptyThreshold cells are EMPTY
+   * @param emptyThreshold the number of EMPTY cells the endgame strategy takes over at
+   * @throws IllegalArgumentException if the endgame strategy is null or the threshold negative
+   */
+  public AIPlayer(ReversiStrategies s, ReversiStrategies endgame, int emptyThreshold) {
+    if (endgame == null) {
+      throw new IllegalArgumentException("endgame strategy cannot be null");
+    }
+    if (emptyThreshold < 0) {
+      throw new IllegalArgumentException("empty cell threshold cannot be negative");
+    }
+    this.color = null;
+    this.strategy = s;
+    this.endgame = endgame;
+    this.emptyThreshold = emptyThreshold;
+  }
+
+  /**
+   * This constructor initializes an AIPlayer that plays with the first strategy, pruning its
+   * search selectively with the given confidence, until at most the given number of cells are
+   * EMPTY, and with the endgame strategy, unchanged, from then on.
+   *
+   * @param s              the strategy for the rest of the game, to prune selectively
+   * @param endgame        the strategy once at most emptyThreshold cells are EMPTY
+   * @param emptyThreshold the number of EMPTY cells the endgame strategy takes over at
+   * @param confidence     the standard deviations a shallow search must clear to cut a line
+   * @throws IllegalArgumentException if the endgame strategy is null, the threshold negative or
+   *                                  the confidence negative or NaN
+   */
+  public AIPlayer(ReversiStrategies s, ReversiStrategies endgame, int emptyThreshold,
+                  double confidence) {
+    this(s.withProbCut(confidence), endgame, emptyThreshold);
   }
 
 
@@ -39,6 +99,32 @@ public class AIPlayer implements Player {
 
   @Override
   public Optional<Coordinate> chooseNextMove(ReversiModel model) {
-    return Optional.ofNullable(strategy.decideMove(model));
+    return Optional.ofNullable(strategyFor(model.getEmptyCount()).decideMove(model));
+  }
+
+  @Override
+  public void ponder(ReversiModel model) {
+    // the opponent's move fills a cell, unless they pass
+    ReversiStrategies next = strategyFor(model.getEmptyCount() - 1);
+    ReversiStrategies other = next == strategy ? endgame : strategy;
+    if (other != null) {
+      other.stopPondering();
+    }
+    next.ponder(model);
+  }
+
+  @Override
+  public void stopPondering() {
+    strategy.stopPondering();
+    if (endgame != null) {
+      endgame.stopPondering();
+    }
+  }
+
+  private ReversiStrategies strategyFor(int emptyCount) {
+    if (endgame != null && emptyCount <= emptyThreshold) {
+      return endgame;
+    }
+    return strategy;
   }
 }
@@ -0,0 +1,797 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AbstractReversi holds the rules of a 2-player game of hexagonal Reversi that do not depend on
+ * how the board is stored. Every cell is addressed by its index in the shared HexGeometry for the
+ * board size, and move validation and flipping walk the geometry's precomputed rays, so checking
+ * or making a move never allocates.
+ * The model also keeps the frontier (the EMPTY cells next to at least one disc) and the set of
+ * legal moves of each color as bitsets over the cell indices. After every move, only the EMPTY
+ * cells that can see one of the changed cells along a ray are checked again, so asking for the
+ * legal moves of a player never scans the board.
+ * The number of discs of each color is kept the same way, so scores never scan the board either,
+ * and so is the Zobrist hash of the position, which is changed with an XOR for every placed or
+ * flipped disc and every change of turn.
+ * The number of legal moves of each player is counted as the moves are updated, and whether the
+ * game is over is derived from those counts once per change of state and cached.
+ * Every time the game moves on through move(), pass() or startGame(), the model publishes an
+ * immutable BoardSnapshot of the new position, which readers on other threads can use without
+ * locking the model. Positions explored with makeMove() and makePass() are never published.
+ * Subclasses only decide how the Cell of every index is stored.
+ */
+abstract class AbstractReversi implements ReversiModel {
+  protected final HexGeometry geometry; // the shared cell indices and rays for this board size
+  private final int boardSize; // the length of each side of the board, in cells
+  // INVARIANT: boardSize must be at least 3
+  private PlayColor playColor; // this represents color of the player and tracks whose turn it is
+  private int passed; // keeps track of how many times the players have passed in a row
+  private final ModelStatus status;
+  private final List<Listener> listeners;
+  private final int[] flipped; // scratch space for the cells flipped by the latest move
+  private final long[] frontier; // bit i is set when cell i is EMPTY and next to a disc
+  private final long[] blackMoves; // bit i is set when BLACK may legally play cell i
+  private final long[] whiteMoves; // bit i is set when WHITE may legally play cell i
+  private int blackMobility; // the number of bits set in blackMoves
+  private int whiteMobility; // the number of bits set in whiteMoves
+  private boolean gameOver; // derived from the mobility and passed after every change of state
+  private final int[] checked; // the update in which every cell was last checked again
+  private int updates; // counts the updates of the move sets, so checked never needs clearing
+  private final Deque<MoveDelta> undo; // the moves made with makeMove() or makePass(), newest first
+  // the number of BLACK discs in the high 32 bits and of WHITE discs in the low 32 bits, kept in
+  // one field so that both scores are always read and written together
+  private volatile long discs;
+  private long hash; // the Zobrist hash of the cells and of the player to move
+  private long version; // the number of positions published so far
+  private volatile BoardSnapshot published; // the latest position reached by the game
+
+  /**
+   * Initializes the parts of the game shared by every board representation.
+   * Initializes the playColor to BLACK because black plays first and passed to 0 since no
+   * players can possibly have passed yet. Subclasses must set up their storage and then call
+   * placeStartingDiscs().
+   *
+   * @param boardSize represents length in Cells of every side of the board
+   * @param status    the ModelStatus object to track the overall game state
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  AbstractReversi(int boardSize, ModelStatus status) {
+    if (boardSize < 3) {
+      throw new IllegalArgumentException("board size must be at least 3");
+    }
+    this.geometry = HexGeometry.of(boardSize);
+    this.boardSize = boardSize;
+    this.playColor = PlayColor.BLACK;
+    this.passed = 0;
+    this.status = status;
+    this.listeners = new ArrayList<>();
+    this.flipped = new int[maxFlips()];
+    int words = (geometry.cellCount() + 63) >>> 6;
+    this.frontier = new long[words];
+    this.blackMoves = new long[words];
+    this.whiteMoves = new long[words];
+    this.checked = new int[geometry.cellCount()];
+    this.updates = 0;
+    this.undo = new ArrayDeque<>();
+  }
+
+  /**
+   * Returns the Cell value held by the cell with the given index.
+   */
+  protected abstract Cell cellAt(int index);
+
+  /**
+   * Changes the cell with the given index to the given Cell value.
+   */
+  protected abstract void setCell(int index, Cell cell);
+
+  /**
+   * Places the six starting discs to provide a fair start to both players, and finds the
+   * frontier and the legal moves of both players for the starting position.
+   */
+  protected final void placeStartingDiscs() {
+    setCell(geometry.indexOf(1, 0), Cell.BLACK);
+    setCell(geometry.indexOf(0, -1), Cell.BLACK);
+    setCell(geometry.indexOf(-1, 1), Cell.BLACK);
+    setCell(geometry.indexOf(1, -1), Cell.WHITE);
+    setCell(geometry.indexOf(-1, 0), Cell.WHITE);
+    setCell(geometry.indexOf(0, 1), Cell.WHITE);
+    setUpPosition();
+  }
+
+  /**
+   * Copies the discs, the player to move and the pass counter of the given snapshot onto the
+   * empty board, so that a subclass constructor can continue a game from a published position.
+   *
+   * @param position the snapshot to continue from
+   * @throws IllegalArgumentException if the snapshot belongs to a board of another size
+   */
+  protected final void placeDiscs(BoardSnapshot position) {
+    if (position.getBoardSize() != boardSize) {
+      throw new IllegalArgumentException("snapshot belongs to a board of another size");
+    }
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      setCell(index, position.cellAt(index));
+    }
+    this.playColor = position.getColor();
+    this.passed = position.getPassed();
+    setUpPosition();
+  }
+
+  /**
+   * Counts the discs, hashes the position and finds the frontier and the legal moves of both
+   * players from scratch, then publishes the position.
+   */
+  private void setUpPosition() {
+    int black = 0;
+    int white = 0;
+    this.hash = 0;
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      Cell cell = cellAt(index);
+      if (cell == Cell.BLACK) {
+        black++;
+      } else if (cell == Cell.WHITE) {
+        white++;
+      }
+      this.hash ^= geometry.zobristKey(index, cell);
+    }
+    this.discs = pack(black, white);
+    if (playColor == PlayColor.WHITE) {
+      this.hash ^= geometry.zobristWhiteToMove();
+    }
+    this.version = 0;
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      refreshFrontier(index);
+      if (isSet(frontier, index)) {
+        checkMoves(index);
+      }
+    }
+    deriveState();
+    publish();
+  }
+
+  @Override
+  public void move(int q, int r) throws IllegalArgumentException, IllegalStateException {
+    int index = geometry.indexOf(q, r);
+    if (index < 0) { // invalid arguments
+      throw new IllegalArgumentException("Arguments are out of valid board range");
+    }
+    if (this.hasNoMoves(this.playColor)) { // player is forced to pass if no moves available
+      pass();
+    } else if (!isSet(movesOf(playColor), index)) { // exception thrown if move not allowed
+      throw new IllegalStateException("Move is not allowed");
+    } else { // this case means arguments are valid, player has at least 1 valid move
+      this.passed = 0; // this is the most recent move, so the pass counter is reset
+      this.undo.clear(); // earlier deltas no longer describe the board
+      place(index);
+      this.switchTurn(); // switch the turn to the other PlayerTurn
+      deriveState();
+      publish();
+      status.updateStatus(this);
+      for (Listener listener : listeners) {
+        listener.update();
+      }
+    }
+  }
+
+  @Override
+  public MoveDelta makeMove(int q, int r) throws IllegalArgumentException,
+          IllegalStateException {
+    int index = geometry.indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("Arguments are out of valid board range");
+    }
+    if (!isSet(movesOf(playColor), index)) {
+      throw new IllegalStateException("Move is not allowed");
+    }
+    int count = place(index);
+    MoveDelta delta = new MoveDelta(index, Arrays.copyOf(flipped, count), playColor, passed);
+    this.passed = 0;
+    this.switchTurn();
+    deriveState();
+    undo.push(delta);
+    return delta;
+  }
+
+  @Override
+  public MoveDelta makePass() {
+    MoveDelta delta = new MoveDelta(playColor, passed);
+    this.switchTurn();
+    this.passed += 1;
+    deriveState();
+    undo.push(delta);
+    return delta;
+  }
+
+  @Override
+  public void unmakeMove(MoveDelta delta) throws IllegalStateException {
+    if (undo.peek() != delta) {
+      throw new IllegalStateException("Only the most recent move can be unmade");
+    }
+    undo.pop();
+    if (!delta.isPass()) {
+      // the flipped discs belonged to the opponent of the player who moved
+      Cell opponent = delta.getPreviousTurn() == PlayColor.BLACK ? Cell.WHITE : Cell.BLACK;
+      for (int cell : delta.flipped) {
+        setCell(cell, opponent);
+        this.hash ^= geometry.zobristFlipKey(cell);
+      }
+      setCell(delta.getPlaced(), Cell.EMPTY);
+      this.hash ^= geometry.zobristKey(delta.getPlaced(), cellOf(delta.getPreviousTurn()));
+      updateMoves(delta.getPlaced(), delta.flipped, delta.flipped.length);
+      countDiscs(delta.getPreviousTurn(), -1 - delta.flipped.length, delta.flipped.length);
+    }
+    if (this.playColor != delta.getPreviousTurn()) {
+      this.switchTurn();
+    }
+    this.passed = delta.getPreviousPassed();
+    deriveState();
+  }
+
+  /**
+   * Places a disc of the current player on the given cell, which must be a legal move, flips the
+   * discs it closes off and updates the legal moves and the disc counts. The flipped cells are
+   * left in the scratch array.
+   *
+   * @return the number of flipped discs
+   */
+  private int place(int index) {
+    Cell target = cellOf(playColor);
+    int count = flip(index, target, flipped);
+    setCell(index, target);
+    this.hash ^= geometry.zobristKey(index, target);
+    for (int i = 0; i < count; i++) {
+      this.hash ^= geometry.zobristFlipKey(flipped[i]);
+    }
+    updateMoves(index, flipped, count);
+    countDiscs(playColor, count + 1, -count);
+    return count;
+  }
+
+  /**
+   * Adds the given amounts to the disc counts of the given player and of their opponent, in a
+   * single write.
+   */
+  private void countDiscs(PlayColor p, int own, int other) {
+    if (p == PlayColor.BLACK) {
+      this.discs += pack(own, other);
+    } else {
+      this.discs += pack(other, own);
+    }
+  }
+
+  private static long pack(int black, int white) {
+    return ((long) black << 32) + white;
+  }
+
+  /**
+   * The flip method is the flip engine behind move(). It walks each of the six rays leading away
+   * from the target cell once, and as soon as a run of opposite-color discs is closed off by a
+   * disc of the target's color, it flips that run. Nothing is changed along rays without a flow,
+   * so a return value of 0 means the move is not valid and the board is untouched.
+   * The target cell itself is not changed. The cost only depends on the length of the runs walked,
+   * never on the size of the board. Subclasses with a faster way to find the runs may override
+   * this, as long as the cells come out in the same order.
+   *
+   * @param index  the index of the target cell
+   * @param target the Cell value of the player making the move
+   * @param into   receives the index of every flipped cell, in ray order; it must have room for
+   *               {@link #maxFlips()} indices
+   * @return the number of flipped cells written into the array
+   */
+  int flip(int index, Cell target, int[] into) {
+    int[] rays = geometry.rayCells();
+    int count = 0;
+    for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+      int start = geometry.rayStart(index, d);
+      int end = geometry.rayStart(index, d + 1);
+      int i = start;
+      while (i < end) {
+        Cell cell = cellAt(rays[i]);
+        if (cell == target) {
+          // the run is closed off, so every disc between the target and here flips
+          for (int j = start; j < i; j++) {
+            setCell(rays[j], target);
+            into[count++] = rays[j];
+          }
+          break;
+        }
+        if (cell == Cell.EMPTY) {
+          break;
+        }
+        i++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the largest number of discs a single move can flip on this board. Every line through
+   * a cell holds at most 2 * boardSize - 1 cells, so the two opposite rays of each of the three
+   * axes hold at most 2 * boardSize - 2 cells between them.
+   */
+  final int maxFlips() {
+    return 3 * (2 * boardSize - 2);
+  }
+
+  /**
+   * The updateMoves method brings the frontier and the legal moves of both players up to date
+   * after the given cell was filled or emptied and the given cells were flipped.
+   * An EMPTY cell can only become or stop being a legal move if one of its rays reaches a changed
+   * cell through discs alone, so from every changed cell this walks each ray across discs to the
+   * first EMPTY cell and checks that cell again. Every cell is checked at most once per update.
+   *
+   * @param placed  the index of the cell that was filled or emptied
+   * @param changed the indices of the cells that were flipped
+   * @param count   the number of flipped cells in the array
+   */
+  final void updateMoves(int placed, int[] changed, int count) {
+    updates++;
+    refreshFrontier(placed);
+    for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+      if (geometry.rayLength(placed, d) > 0) {
+        refreshFrontier(geometry.rayCell(placed, d, 0));
+      }
+    }
+    if (cellAt(placed) == Cell.EMPTY) {
+      checked[placed] = updates;
+      checkMoves(placed);
+    } else {
+      recordMoves(placed, false, false);
+    }
+    checkMovesSeeing(placed);
+    for (int i = 0; i < count; i++) {
+      checkMovesSeeing(changed[i]);
+    }
+  }
+
+  /**
+   * Checks again every EMPTY cell that reaches the given cell along a ray through discs alone.
+   */
+  private void checkMovesSeeing(int index) {
+    int[] rays = geometry.rayCells();
+    for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+      int end = geometry.rayStart(index, d + 1);
+      for (int i = geometry.rayStart(index, d); i < end; i++) {
+        int cell = rays[i];
+        if (cellAt(cell) == Cell.EMPTY) {
+          if (checked[cell] != updates) {
+            checked[cell] = updates;
+            checkMoves(cell);
+          }
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Decides whether each player may legally play the given EMPTY cell, and records the answers.
+   */
+  private void checkMoves(int index) {
+    boolean black = false;
+    boolean white = false;
+    for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+      black = black || bracketLength(index, d, Cell.BLACK) > 0;
+      white = white || bracketLength(index, d, Cell.WHITE) > 0;
+    }
+    recordMoves(index, black, white);
+  }
+
+  /**
+   * Records whether each player may legally play the given cell, keeping the mobility of both
+   * players equal to the number of bits set in their legal moves.
+   */
+  private void recordMoves(int index, boolean black, boolean white) {
+    if (black != isSet(blackMoves, index)) {
+      blackMobility += black ? 1 : -1;
+      blackMoves[index >>> 6] ^= 1L << index;
+    }
+    if (white != isSet(whiteMoves, index)) {
+      whiteMobility += white ? 1 : -1;
+      whiteMoves[index >>> 6] ^= 1L << index;
+    }
+  }
+
+  /**
+   * Decides whether the given cell belongs to the frontier, meaning it is EMPTY and at least one
+   * of its neighbors holds a disc, and records the answer.
+   */
+  private void refreshFrontier(int index) {
+    clear(frontier, index);
+    if (cellAt(index) != Cell.EMPTY) {
+      return;
+    }
+    for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+      if (geometry.rayLength(index, d) > 0
+              && cellAt(geometry.rayCell(index, d, 0)) != Cell.EMPTY) {
+        set(frontier, index);
+        return;
+      }
+    }
+  }
+
+  /**
+   * The bracketLength method walks the ray leading away from the target cell in the given
+   * direction and counts the run of opposite-color discs that is closed off by a disc of the
+   * target's color. Subclasses with a faster way to find the run may override this.
+   *
+   * @param index  the index of the target cell
+   * @param d      the direction of the ray to walk
+   * @param target the Cell value of the player whose move is being checked
+   * @return the number of discs that would be flipped in that direction, 0 if the run of
+   *         opposite discs is not closed off by one of the player's discs
+   */
+  int bracketLength(int index, int d, Cell target) {
+    int[] rays = geometry.rayCells();
+    int start = geometry.rayStart(index, d);
+    int end = geometry.rayStart(index, d + 1);
+    int i = start;
+    while (i < end) {
+      Cell cell = cellAt(rays[i]);
+      if (cell == target) {
+        return i - start;
+      }
+      if (cell == Cell.EMPTY) {
+        return 0;
+      }
+      i++;
+    }
+    return 0; // the ray reached the edge of the board without being closed off
+  }
+
+  @Override
+  public boolean validMoveLogic(int q, int r, PlayColor p) {
+    int index = geometry.indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("board does not contain this cell");
+    }
+    return isSet(movesOf(p), index);
+  }
+
+  @Override
+  public int flipDirections(int q, int r, PlayColor p) throws IllegalArgumentException {
+    int index = geometry.indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("board does not contain this cell");
+    }
+    if (cellAt(index) != Cell.EMPTY) {
+      return 0;
+    }
+    Cell target = cellOf(p);
+    int mask = 0;
+    for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+      if (bracketLength(index, d, target) > 0) {
+        mask |= 1 << d;
+      }
+    }
+    return mask;
+  }
+
+  @Override
+  public int flipCount(int q, int r, PlayColor p) throws IllegalArgumentException {
+    int index = geometry.indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("board does not contain this cell");
+    }
+    if (cellAt(index) != Cell.EMPTY) {
+      return 0;
+    }
+    Cell target = cellOf(p);
+    int count = 0;
+    for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+      count += bracketLength(index, d, target);
+    }
+    return count;
+  }
+
+  @Override
+  public Map<Coordinate, Cell> findQPathsUp(Coordinate coord, Cell target) {
+    return findPath(coord, target, HexGeometry.Q_UP);
+  }
+
+  @Override
+  public Map<Coordinate, Cell> findQPathsDown(Coordinate coord, Cell target) {
+    return findPath(coord, target, HexGeometry.Q_DOWN);
+  }
+
+  @Override
+  public Map<Coordinate, Cell> findRPathsRight(Coordinate coord, Cell target) {
+    return findPath(coord, target, HexGeometry.R_RIGHT);
+  }
+
+  @Override
+  public Map<Coordinate, Cell> findRPathsLeft(Coordinate coord, Cell target) {
+    return findPath(coord, target, HexGeometry.R_LEFT);
+  }
+
+  @Override
+  public Map<Coordinate, Cell> findSPathsUp(Coordinate coord, Cell target) {
+    return findPath(coord, target, HexGeometry.S_UP);
+  }
+
+  @Override
+  public Map<Coordinate, Cell> findSPathsDown(Coordinate coord, Cell target) {
+    return findPath(coord, target, HexGeometry.S_DOWN);
+  }
+
+  /**
+   * The findPath method is a helper for the find*Paths* methods that returns the cell closing off
+   * a run of opposite-color discs leading away from the target in the given direction.
+   *
+   * @param coord  the Coordinate key of the target
+   * @param target the Cell value of the target
+   * @param d      the direction of the ray to walk
+   * @return a HashMap containing the closing cell, or an empty HashMap if there is no flow
+   */
+  private Map<Coordinate, Cell> findPath(Coordinate coord, Cell target, int d) {
+    Map<Coordinate, Cell> matches = new HashMap<>();
+    int index = geometry.indexOf(coord.getQ(), coord.getR());
+    if (index < 0 || target == Cell.EMPTY) {
+      return matches;
+    }
+    int length = bracketLength(index, d, target);
+    if (length > 0) {
+      int match = geometry.rayCell(index, d, length);
+      matches.put(geometry.coordinateAt(match), target);
+    }
+    return matches;
+  }
+
+  @Override
+  public void pass() {
+    this.undo.clear(); // earlier deltas no longer describe the turn order
+    this.switchTurn();
+    this.passed += 1;
+    deriveState();
+    publish();
+    status.updateStatus(this);
+    for (Listener listener : listeners) {
+      listener.update();
+    }
+  }
+
+  @Override
+  public void switchTurn() {
+    if (playColor.equals(PlayColor.BLACK)) {
+      this.playColor = PlayColor.WHITE;
+    } else if (playColor.equals(PlayColor.WHITE)) {
+      this.playColor = PlayColor.BLACK;
+    }
+    this.hash ^= geometry.zobristWhiteToMove(); // the player to move is part of the hash
+  }
+
+  @Override
+  public void startGame() {
+    if (this.playColor != PlayColor.BLACK) {
+      this.switchTurn();
+    }
+    deriveState();
+    publish();
+    status.updateStatus(this);
+    for (Listener listener : listeners) {
+      listener.update();
+    }
+  }
+
+  @Override
+  public boolean hasNoMoves(PlayColor p) {
+    return getMobility(p) == 0;
+  }
+
+  @Override
+  public int getMobility(PlayColor p) {
+    return p == PlayColor.BLACK ? blackMobility : whiteMobility;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return this.gameOver;
+  }
+
+  /**
+   * Derives whether the game is over from the cached mobility of both players and the pass
+   * counter. Called once after every change of the turn, the board or the pass counter, so that
+   * isGameOver() and the ModelStatus never check the legal moves again.
+   */
+  private void deriveState() {
+    // game is over if one player just passed and the other has no moves, or both have no moves,
+    // or both players pass consecutively
+    this.gameOver = (this.hasNoMoves(this.playColor) && passed == 1)
+            || (blackMobility == 0 && whiteMobility == 0)
+            || passed == 2;
+  }
+
+  @Override
+  public int getScore(PlayColor p) {
+    long counts = this.discs;
+    return p == PlayColor.BLACK ? (int) (counts >> 32) : (int) counts;
+  }
+
+  @Override
+  public BoardSnapshot snapshot() {
+    return this.published;
+  }
+
+  /**
+   * Takes an immutable BoardSnapshot of the current position and makes it the one returned by
+   * snapshot(). Readers holding an older snapshot keep it unchanged.
+   */
+  private void publish() {
+    int words = (geometry.cellCount() + 63) >>> 6;
+    long[] black = new long[words];
+    long[] white = new long[words];
+    copyDiscs(black, white);
+    this.published = new BoardSnapshot(geometry, version++, black, white,
+            movesOf(playColor).clone(), playColor, passed, hash, isGameOver());
+  }
+
+  /**
+   * Fills the given bitsets with the cells holding BLACK and WHITE discs. Subclasses that already
+   * store the board as bitsets can copy them instead of checking every cell.
+   */
+  protected void copyDiscs(long[] black, long[] white) {
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      Cell cell = cellAt(index);
+      if (cell == Cell.BLACK) {
+        set(black, index);
+      } else if (cell == Cell.WHITE) {
+        set(white, index);
+      }
+    }
+  }
+
+  @Override
+  public long getPositionHash() {
+    return this.hash;
+  }
+
+  @Override
+  public int getEmptyCount() {
+    long counts = this.discs;
+    return geometry.cellCount() - (int) (counts >> 32) - (int) counts;
+  }
+
+  @Override
+  public ScoreSnapshot getScores() {
+    long counts = this.discs;
+    int black = (int) (counts >> 32);
+    int white = (int) counts;
+    return new ScoreSnapshot(black, white, geometry.cellCount() - black - white);
+  }
+
+  @Override
+  public Cell getCell(int q, int r) throws IllegalArgumentException {
+    int index = geometry.indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("board does not contain this cell");
+    }
+    return cellAt(index);
+  }
+
+  @Override
+  public int getBoardSize() {
+    return this.boardSize;
+  }
+
+  @Override
+  public boolean verify(int q, int r) {
+    return Math.abs(q + r) < boardSize;
+  }
+
+  /**
+   * Builds a HashMap view of the board. The board is stored by cell index, so the returned map
+   * is a fresh copy and changing it does not change the game.
+   */
+  @Override
+  public Map<Coordinate, Cell> returnBoard() {
+    Map<Coordinate, Cell> board = new HashMap<>();
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      board.put(geometry.coordinateAt(index), cellAt(index));
+    }
+    return board;
+  }
+
+  @Override
+  public ArrayList<Coordinate> getAllMoves() {
+    ArrayList<Coordinate> moves = new ArrayList<>();
+    long[] legal = movesOf(playColor);
+    for (int word = 0; word < legal.length; word++) {
+      long bits = legal[word];
+      while (bits != 0) {
+        int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+        moves.add(geometry.coordinateAt(index));
+        bits &= bits - 1;
+      }
+    }
+    return moves;
+  }
+
+  @Override
+  public int legalMoves(int[] into) {
+    long[] legal = movesOf(playColor);
+    int count = 0;
+    for (int word = 0; word < legal.length; word++) {
+      long bits = legal[word];
+      while (bits != 0) {
+        into[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public PlayColor getColor() {
+    return this.playColor;
+  }
+
+  @Override
+  public void addListener(Listener listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public Map<Coordinate, Cell> getCopyBoard() {
+    return this.returnBoard();
+  }
+
+  /**
+   * Returns the bitset of the legal moves of the given PlayColor.
+   */
+  private long[] movesOf(PlayColor p) {
+    return p == PlayColor.BLACK ? blackMoves : whiteMoves;
+  }
+
+  /**
+   * Returns the Cell value of the discs of the given PlayColor.
+   */
+  static Cell cellOf(PlayColor p) {
+    return p == PlayColor.BLACK ? Cell.BLACK : Cell.WHITE;
+  }
+
+  static boolean isSet(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  static void set(long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  static void clear(long[] bits, int index) {
+    bits[index >>> 6] &= ~(1L << index);
+  }
+
+  /**
+   * Mock method to access what the current turn is to test pass() and other methods.
+   * @return the current playColor which is either BLACK or WHITE
+   */
+  public PlayColor getTurn() {
+    return playColor;
+  }
+
+  /**
+   * Mock method to access the total number of cells in the board to test the constructor
+   * and preservation of the board size.
+   * @return the total number of cells in the board.
+   */
+  public int boardTotal() {
+    return geometry.cellCount();
+  }
+
+  /**
+   * Mock method to access the value for passed to test that a player is forced to pass if they
+   * have no moves.
+   * @return the number of consecutive passes
+   */
+  public int getPassed() {
+    return passed;
+  }
+}
@@ -0,0 +1,103 @@
+package model;
+
+/**
+ * BitboardReversi represents an instance of ReversiModel that stores the board as two dense
+ * bitsets, one for the BLACK discs and one for the WHITE discs, instead of a map of Coordinates.
+ * The bit at the index a cell has in the board's HexGeometry is set when the cell holds a disc
+ * of that color. A cell whose bit is set in neither bitset is EMPTY.
+ * For board sizes up to 5 the board has at most 61 cells, so each color fits in a single long
+ * field, and the model reads and writes it without going through an array. Larger boards use an
+ * array of as many longs as needed.
+ * Looking up, flipping or counting cells never allocates a Coordinate, which makes this model
+ * better suited to the AI strategies than BasicReversi.
+ */
+public final class BitboardReversi extends AbstractReversi {
+  private static final int MAX_SINGLE_WORD_SIZE = 5; // the largest board that fits in one long
+
+  // bit i is set when the cell with index i holds a BLACK or WHITE disc, on boards up to size 5
+  private long blackWord;
+  private long whiteWord;
+  // the same for larger boards, null on boards up to size 5
+  private final long[] black;
+  private final long[] white;
+
+  /**
+   * Constructs a BitboardReversi instance of ReversiModel where the boardSize determines the
+   * length of the sides of the board, tracking its state with a fresh ReversiStatus.
+   *
+   * @param boardSize represents length in Cells of every side of the board
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  public BitboardReversi(int boardSize) {
+    this(boardSize, new ReversiStatus());
+  }
+
+  /**
+   * Constructs a BitboardReversi instance of ReversiModel where the boardSize determines the
+   * length of the sides of the board and the given ModelStatus tracks the game state.
+   * Initializes the playColor to BLACK because black plays first, allocates one bit per cell for
+   * each color and places the six starting discs.
+   *
+   * @param boardSize represents length in Cells of every side of the board
+   * @param status    the ModelStatus object to track the overall game state
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  public BitboardReversi(int boardSize, ModelStatus status) {
+    super(boardSize, status);
+    if (boardSize <= MAX_SINGLE_WORD_SIZE) {
+      this.black = null;
+      this.white = null;
+    } else {
+      this.black = new long[(geometry.cellCount() + 63) >>> 6];
+      this.white = new long[(geometry.cellCount() + 63) >>> 6];
+    }
+    placeStartingDiscs();
+  }
+
+  @Override
+  protected Cell cellAt(int index) {
+    long mask = 1L << index;
+    if (black == null) {
+      if ((blackWord & mask) != 0) {
+        return Cell.BLACK;
+      }
+      return (whiteWord & mask) != 0 ? Cell.WHITE : Cell.EMPTY;
+    }
+    if ((black[index >>> 6] & mask) != 0) {
+      return Cell.BLACK;
+    }
+    if ((white[index >>> 6] & mask) != 0) {
+      return Cell.WHITE;
+    }
+    return Cell.EMPTY;
+  }
+
+  @Override
+  protected void setCell(int index, Cell cell) {
+    long mask = 1L << index;
+    if (black == null) {
+      this.blackWord = cell == Cell.BLACK ? blackWord | mask : blackWord & ~mask;
+      this.whiteWord = cell == Cell.WHITE ? whiteWord | mask : whiteWord & ~mask;
+      return;
+    }
+    int word = index >>> 6;
+    black[word] &= ~mask;
+    white[word] &= ~mask;
+    if (cell == Cell.BLACK) {
+      black[word] |= mask;
+    } else if (cell == Cell.WHITE) {
+      white[word] |= mask;
+    }
+  }
+
+  @Override
+  protected void copyDiscs(long[] blackInto, long[] whiteInto) {
+    if (black == null) {
+      blackInto[0] = blackWord;
+      whiteInto[0] = whiteWord;
+      return;
+    }
+    System.arraycopy(black, 0, blackInto, 0, black.length);
+    System.arraycopy(white, 0, whiteInto, 0, white.length);
+  }
+}
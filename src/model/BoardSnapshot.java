@@ -0,0 +1,190 @@
+package model;
+
+import java.util.ArrayList;
+
+/**
+ * BoardSnapshot is an immutable copy of a position published by a model: the discs of both
+ * colors as bitsets over the cell indices of the board's HexGeometry, the player to move, the
+ * legal moves of that player and whether the game is over.
+ * The model publishes a new snapshot every time the game moves on, so a BoardSnapshot can be read
+ * from any thread, for as long as needed, without locking the model and without ever seeing half
+ * of a move. Every snapshot carries the version of the position it was taken from, which grows by
+ * one with every published position.
+ */
+public final class BoardSnapshot {
+  private final HexGeometry geometry; // shared by every snapshot and model of this board size
+  private final long version; // the number of positions the model published before this one
+  private final long[] black; // bit i is set when the cell with index i holds a BLACK disc
+  private final long[] white; // bit i is set when the cell with index i holds a WHITE disc
+  private final long[] moves; // bit i is set when the player to move may legally play cell i
+  private final PlayColor turn; // the player to move
+  private final int passed; // how many times the players had passed in a row
+  private final long hash; // the Zobrist hash of the position
+  private final boolean gameOver; // whether the game was over
+
+  /**
+   * Constructs a BoardSnapshot from arrays that nobody else holds a reference to.
+   */
+  BoardSnapshot(HexGeometry geometry, long version, long[] black, long[] white, long[] moves,
+                PlayColor turn, int passed, long hash, boolean gameOver) {
+    this.geometry = geometry;
+    this.version = version;
+    this.black = black;
+    this.white = white;
+    this.moves = moves;
+    this.turn = turn;
+    this.passed = passed;
+    this.hash = hash;
+    this.gameOver = gameOver;
+  }
+
+  /**
+   * Returns the version of the position, which is larger for every later position of the game.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the length in cells of every side of the board.
+   */
+  public int getBoardSize() {
+    return geometry.getBoardSize();
+  }
+
+  /**
+   * Returns the Cell value of the cell at the given q and r values.
+   *
+   * @param q the q-value of the cell
+   * @param r the r-value of the cell
+   * @return the Cell value of BLACK, WHITE, or EMPTY
+   * @throws IllegalArgumentException if the board does not contain the cell
+   */
+  public Cell getCell(int q, int r) throws IllegalArgumentException {
+    int index = geometry.indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("board does not contain this cell");
+    }
+    return cellAt(index);
+  }
+
+  /**
+   * Copies the bitsets of the discs of both colors into the given arrays.
+   */
+  void copyDiscs(long[] blackInto, long[] whiteInto) {
+    System.arraycopy(black, 0, blackInto, 0, black.length);
+    System.arraycopy(white, 0, whiteInto, 0, white.length);
+  }
+
+  /**
+   * Packs the discs of the position into the given array from the given offset: the
+   * geometry's wordCount() words of the BLACK bitset, then as many of the WHITE bitset. Many
+   * positions packed one after the other can be scored in one call by a batch evaluation.
+   *
+   * @param into   the array to pack into
+   * @param offset the index of the first word to write
+   * @throws IndexOutOfBoundsException if the array has no room for both bitsets at the offset
+   */
+  public void packDiscs(long[] into, int offset) {
+    System.arraycopy(black, 0, into, offset, black.length);
+    System.arraycopy(white, 0, into, offset + black.length, white.length);
+  }
+
+  /**
+   * Returns the bitset of the discs of the given color itself, which must not be changed.
+   */
+  long[] discsOf(PlayColor color) {
+    return color == PlayColor.BLACK ? black : white;
+  }
+
+  /**
+   * Returns the Cell value of the cell with the given index in the board's HexGeometry.
+   */
+  Cell cellAt(int index) {
+    if (AbstractReversi.isSet(black, index)) {
+      return Cell.BLACK;
+    }
+    if (AbstractReversi.isSet(white, index)) {
+      return Cell.WHITE;
+    }
+    return Cell.EMPTY;
+  }
+
+  /**
+   * Returns the color of the player whose turn it was.
+   */
+  public PlayColor getColor() {
+    return turn;
+  }
+
+  /**
+   * Returns how many times the players had passed in a row.
+   */
+  public int getPassed() {
+    return passed;
+  }
+
+  /**
+   * Returns the score of the given PlayColor, meaning the number of discs of its color.
+   */
+  public int getScore(PlayColor p) {
+    int score = 0;
+    for (long word : p == PlayColor.BLACK ? black : white) {
+      score += Long.bitCount(word);
+    }
+    return score;
+  }
+
+  /**
+   * Returns the scores of both players and the number of EMPTY cells.
+   */
+  public ScoreSnapshot getScores() {
+    int blackScore = getScore(PlayColor.BLACK);
+    int whiteScore = getScore(PlayColor.WHITE);
+    return new ScoreSnapshot(blackScore, whiteScore,
+            geometry.cellCount() - blackScore - whiteScore);
+  }
+
+  /**
+   * Returns the Zobrist hash of the position, as given by the model's getPositionHash().
+   */
+  public long getPositionHash() {
+    return hash;
+  }
+
+  /**
+   * Returns true if the game was over.
+   */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  /**
+   * Returns true if the player whose turn it was could legally play the given cell.
+   *
+   * @throws IllegalArgumentException if the board does not contain the cell
+   */
+  public boolean isLegalMove(int q, int r) throws IllegalArgumentException {
+    int index = geometry.indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("board does not contain this cell");
+    }
+    return AbstractReversi.isSet(moves, index);
+  }
+
+  /**
+   * Returns an ArrayList of all the coordinates the player whose turn it was could legally play.
+   */
+  public ArrayList<Coordinate> getAllMoves() {
+    ArrayList<Coordinate> all = new ArrayList<>();
+    for (int word = 0; word < moves.length; word++) {
+      long bits = moves[word];
+      while (bits != 0) {
+        int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+        all.add(geometry.coordinateAt(index));
+        bits &= bits - 1;
+      }
+    }
+    return all;
+  }
+}
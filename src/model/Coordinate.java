@@ -1,9 +1,11 @@
 package model;
 
-import java.util.Objects;
-
 /**
  * Coordinate represents a 2-Dimensional location with a q value and an r value.
+ * Coordinates compare by value, but the HexGeometry of every board size also holds one shared
+ * Coordinate per cell, so code that knows the index of a cell, or only needs a cell on the
+ * board, should use {@link HexGeometry#coordinateAt(int)} or
+ * {@link HexGeometry#coordinateOf(int, int)} instead of allocating a new one.
  */
 public class Coordinate {
   private final int q;
@@ -56,9 +58,9 @@ public class Coordinate {
     return this.q == otherCoordinate.q && this.r == otherCoordinate.r;
   }
 
-  // overriding hashCode to go with override of equals method
+  // overriding hashCode to go with override of equals method, without boxing q and r
   @Override
   public int hashCode() {
-    return Objects.hash(q, r);
+    return 31 * q + r;
   }
 }
@@ -0,0 +1,293 @@
+package model;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HexGeometry holds everything about a hexagonal board that only depends on its size: the index
+ * of every cell and, for every cell, the ordered ray of cell indices leading away from it in each
+ * of the six hexagonal directions.
+ * Cells are numbered column by column (increasing q, then increasing r), so the index of a cell
+ * is the index of the first cell of its q column plus its offset within that column.
+ * It also holds the Zobrist keys used to hash positions: one random key per cell and color, and
+ * one for WHITE being the player to move. The keys are drawn from a fixed seed, so the same
+ * position always has the same hash, even in different processes.
+ * Finally, it holds one shared Coordinate for every cell, so the model, the strategies and the
+ * view can hand out Coordinates of the board without allocating them.
+ * A HexGeometry is immutable and built once per board size, so every game of the same size
+ * shares the same tables. Use {@link #of(int)} to get the geometry for a board size.
+ */
+public final class HexGeometry {
+  /**
+   * The number of hexagonal directions a ray can follow.
+   */
+  public static final int DIRECTIONS = 6;
+  // the six hexagonal directions, numbered in the order of the find*Paths* helpers of the model;
+  // these are also the bit positions of the direction masks returned by flipDirections()
+  public static final int Q_UP = 0;
+  public static final int Q_DOWN = 1;
+  public static final int R_RIGHT = 2;
+  public static final int R_LEFT = 3;
+  public static final int S_UP = 4;
+  public static final int S_DOWN = 5;
+  // the (q, r) step of every direction
+  private static final int[] DIRECTION_Q = {0, 0, 1, -1, 1, -1};
+  private static final int[] DIRECTION_R = {-1, 1, 0, 0, -1, 1};
+
+  private static final Map<Integer, HexGeometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+  private final int boardSize; // the length of each side of the board, in cells
+  private final int cellCount; // the number of cells on the board
+  private final int[] columnStart; // the index of the first cell of every q column
+  private final int[] qValues; // the q value of every cell, by index
+  private final int[] rValues; // the r value of every cell, by index
+  private final Coordinate[] coordinates; // the shared Coordinate of every cell, by index
+  // the rays of every cell, one after the other; the ray of cell i in direction d starts at
+  // rayStart[i * DIRECTIONS + d] and ends right before rayStart[i * DIRECTIONS + d + 1]
+  private final int[] rayStart;
+  private final int[] rayCells;
+  // the Zobrist key of a BLACK disc on cell i is at 2 * i, and of a WHITE disc at 2 * i + 1
+  private final long[] zobrist;
+  private final long whiteToMove; // the Zobrist key XORed in while WHITE is the player to move
+
+  /**
+   * Returns the geometry for boards with the given side length, building it the first time that
+   * size is asked for.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @return the shared geometry for that board size
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  public static HexGeometry of(int boardSize) {
+    if (boardSize < 3) {
+      throw new IllegalArgumentException("board size must be at least 3");
+    }
+    return GEOMETRIES.computeIfAbsent(boardSize, HexGeometry::new);
+  }
+
+  private HexGeometry(int boardSize) {
+    this.boardSize = boardSize;
+    this.columnStart = new int[2 * boardSize - 1];
+    int total = 0;
+    // every column q holds (2 * boardSize - 1 - |q|) cells
+    for (int q = -boardSize + 1; q < boardSize; q++) {
+      columnStart[q + boardSize - 1] = total;
+      total += 2 * boardSize - 1 - Math.abs(q);
+    }
+    this.cellCount = total;
+    this.qValues = new int[cellCount];
+    this.rValues = new int[cellCount];
+    this.coordinates = new Coordinate[cellCount];
+    for (int q = -boardSize + 1; q < boardSize; q++) {
+      for (int r = minR(q); r <= maxR(q); r++) {
+        int index = indexOf(q, r);
+        qValues[index] = q;
+        rValues[index] = r;
+        coordinates[index] = new Coordinate(q, r);
+      }
+    }
+
+    this.rayStart = new int[cellCount * DIRECTIONS + 1];
+    int length = 0;
+    for (int index = 0; index < cellCount; index++) {
+      for (int d = 0; d < DIRECTIONS; d++) {
+        rayStart[index * DIRECTIONS + d] = length;
+        length += walk(index, d, null, length);
+      }
+    }
+    rayStart[cellCount * DIRECTIONS] = length;
+    this.rayCells = new int[length];
+    for (int index = 0; index < cellCount; index++) {
+      for (int d = 0; d < DIRECTIONS; d++) {
+        walk(index, d, rayCells, rayStart[index * DIRECTIONS + d]);
+      }
+    }
+
+    SplittableRandom random = new SplittableRandom(0x5EED_0000L + boardSize);
+    this.zobrist = new long[2 * cellCount];
+    for (int i = 0; i < zobrist.length; i++) {
+      zobrist[i] = random.nextLong();
+    }
+    this.whiteToMove = random.nextLong();
+  }
+
+  /**
+   * Walks from the given cell in the given direction until the edge of the board, writing the
+   * indices of the cells passed into the given array if it is not null.
+   *
+   * @return the number of cells on the ray
+   */
+  private int walk(int index, int d, int[] into, int offset) {
+    int q = qValues[index] + DIRECTION_Q[d];
+    int r = rValues[index] + DIRECTION_R[d];
+    int count = 0;
+    int next = indexOf(q, r);
+    while (next >= 0) {
+      if (into != null) {
+        into[offset + count] = next;
+      }
+      count++;
+      q += DIRECTION_Q[d];
+      r += DIRECTION_R[d];
+      next = indexOf(q, r);
+    }
+    return count;
+  }
+
+  private int minR(int q) {
+    return Math.max(-boardSize + 1, -q - boardSize + 1);
+  }
+
+  private int maxR(int q) {
+    return Math.min(boardSize - 1, -q + boardSize - 1);
+  }
+
+  /**
+   * Returns the length in cells of every side of the board this geometry describes.
+   */
+  public int getBoardSize() {
+    return boardSize;
+  }
+
+  /**
+   * Returns the number of cells on the board, which is also one more than the largest index.
+   */
+  public int cellCount() {
+    return cellCount;
+  }
+
+  /**
+   * Returns the number of longs a bitset with one bit per cell of the board takes up, as the
+   * models, the snapshots and the packed boards of {@link BoardSnapshot#packDiscs} store them.
+   */
+  public int wordCount() {
+    return (cellCount + 63) >>> 6;
+  }
+
+  /**
+   * The indexOf method returns the index of the cell at the given q and r values.
+   *
+   * @param q the q-value of the cell
+   * @param r the r-value of the cell
+   * @return the index of the cell, or -1 if the board does not contain the cell
+   */
+  public int indexOf(int q, int r) {
+    if (q <= -boardSize || q >= boardSize || r <= -boardSize || r >= boardSize
+            || Math.abs(q + r) >= boardSize) {
+      return -1;
+    }
+    return columnStart[q + boardSize - 1] + r - minR(q);
+  }
+
+  /**
+   * Returns the q value of the cell with the given index.
+   */
+  public int qOf(int index) {
+    return qValues[index];
+  }
+
+  /**
+   * Returns the r value of the cell with the given index.
+   */
+  public int rOf(int index) {
+    return rValues[index];
+  }
+
+  /**
+   * Returns the shared Coordinate of the cell with the given index. The same instance is
+   * returned every time, so it can be handed out freely.
+   *
+   * @param index the index of the cell, from 0 to cellCount() - 1
+   * @return the Coordinate of the cell
+   */
+  public Coordinate coordinateAt(int index) {
+    return coordinates[index];
+  }
+
+  /**
+   * Returns the shared Coordinate of the cell at the given q and r values.
+   *
+   * @param q the q-value of the cell
+   * @param r the r-value of the cell
+   * @return the Coordinate of the cell
+   * @throws IllegalArgumentException if the board does not contain the cell
+   */
+  public Coordinate coordinateOf(int q, int r) {
+    int index = indexOf(q, r);
+    if (index < 0) {
+      throw new IllegalArgumentException("board does not contain this cell");
+    }
+    return coordinates[index];
+  }
+
+  /**
+   * Returns the number of cells between the given cell and the edge of the board in the given
+   * direction, not counting the cell itself.
+   *
+   * @param index     the index of the cell the ray starts from
+   * @param direction the direction of the ray, from 0 to {@link #DIRECTIONS} - 1
+   * @return the length of the ray
+   */
+  public int rayLength(int index, int direction) {
+    int slot = index * DIRECTIONS + direction;
+    return rayStart[slot + 1] - rayStart[slot];
+  }
+
+  /**
+   * Returns the index of the cell the given number of steps away from the given cell in the
+   * given direction, where step 0 is the direct neighbor.
+   *
+   * @param index     the index of the cell the ray starts from
+   * @param direction the direction of the ray, from 0 to {@link #DIRECTIONS} - 1
+   * @param step      how far along the ray the cell is, less than its rayLength
+   * @return the index of the cell on the ray
+   */
+  public int rayCell(int index, int direction, int step) {
+    return rayCells[rayStart[index * DIRECTIONS + direction] + step];
+  }
+
+  /**
+   * Returns the Zobrist key of the given Cell value on the cell with the given index, which is 0
+   * for an EMPTY cell.
+   */
+  public long zobristKey(int index, Cell cell) {
+    if (cell == Cell.BLACK) {
+      return zobrist[2 * index];
+    }
+    if (cell == Cell.WHITE) {
+      return zobrist[2 * index + 1];
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the Zobrist key that changes a hash when a disc on the cell with the given index
+   * flips from one color to the other.
+   */
+  public long zobristFlipKey(int index) {
+    return zobrist[2 * index] ^ zobrist[2 * index + 1];
+  }
+
+  /**
+   * Returns the Zobrist key that is part of the hash of every position with WHITE to move.
+   */
+  public long zobristWhiteToMove() {
+    return whiteToMove;
+  }
+
+  /**
+   * Returns the position in {@link #rayCells()} where the ray of the given cell in the given
+   * direction starts. The ray ends where the ray in the next slot starts.
+   */
+  int rayStart(int index, int direction) {
+    return rayStart[index * DIRECTIONS + direction];
+  }
+
+  /**
+   * Returns the shared array holding every ray one after the other. It must not be modified.
+   */
+  int[] rayCells() {
+    return rayCells;
+  }
+}
@@ -0,0 +1,237 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HexSymmetry holds the twelve symmetries of a hexagonal board of one size, the six rotations by
+ * a sixth of a turn and the six reflections, and maps positions to a canonical form, so that
+ * positions that are the same up to a symmetry can share one entry of a table, a book or an
+ * archive.
+ * Transform t reflects the board across the line q = r if t is at least ROTATIONS, then rotates
+ * it t % ROTATIONS sixths of a turn, each turning (q, r) into (-r, q + r). Transform 0 is the
+ * identity. For every transform, the index of the image of every cell is precomputed, and so is
+ * the Zobrist key of every cell and color of the transformed board, so the hashes of all twelve
+ * images of a position take one pass over its discs.
+ * The canonical form of a position is the image with the smallest position hash, the lowest
+ * transform winning ties, which only happen between images that are the same position.
+ * A HexSymmetry is immutable and built once per board size. Use {@link #of(int)} to get the
+ * symmetries of a board size.
+ */
+public final class HexSymmetry {
+  /**
+   * The number of symmetries of the board.
+   */
+  public static final int TRANSFORMS = 12;
+  /**
+   * The number of rotations among the symmetries, which are the first transforms.
+   */
+  public static final int ROTATIONS = 6;
+
+  private static final Map<Integer, HexSymmetry> SYMMETRIES = new ConcurrentHashMap<>();
+
+  private final HexGeometry geometry;
+  private final int[][] images; // the index of the image of every cell under every transform
+  // the Zobrist key of the image of every cell and color, for every transform: the key of a
+  // BLACK disc on cell i under transform t is at (2 * i) * TRANSFORMS + t, of a WHITE one at
+  // (2 * i + 1) * TRANSFORMS + t
+  private final long[] keys;
+
+  private HexSymmetry(int boardSize) {
+    this.geometry = HexGeometry.of(boardSize);
+    int cells = geometry.cellCount();
+    this.images = new int[TRANSFORMS][cells];
+    this.keys = new long[2 * cells * TRANSFORMS];
+    for (int t = 0; t < TRANSFORMS; t++) {
+      for (int index = 0; index < cells; index++) {
+        int q = geometry.qOf(index);
+        int r = geometry.rOf(index);
+        if (t >= ROTATIONS) {
+          int reflected = q;
+          q = r;
+          r = reflected;
+        }
+        for (int turn = 0; turn < t % ROTATIONS; turn++) {
+          int rotated = -r;
+          r = q + r;
+          q = rotated;
+        }
+        int image = geometry.indexOf(q, r);
+        images[t][index] = image;
+        keys[2 * index * TRANSFORMS + t] = geometry.zobristKey(image, Cell.BLACK);
+        keys[(2 * index + 1) * TRANSFORMS + t] = geometry.zobristKey(image, Cell.WHITE);
+      }
+    }
+  }
+
+  /**
+   * Returns the HexSymmetry of boards of the given size, building it on first use.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @return the shared HexSymmetry for that size
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  public static HexSymmetry of(int boardSize) {
+    HexGeometry.of(boardSize); // rejects a boardSize that is too small
+    return SYMMETRIES.computeIfAbsent(boardSize, HexSymmetry::new);
+  }
+
+  /**
+   * Returns the index of the image of the cell with the given index under the given transform.
+   *
+   * @param transform the transform, from 0 to TRANSFORMS - 1
+   * @param index     the index of the cell in the board's HexGeometry
+   * @return the index of its image
+   */
+  public int apply(int transform, int index) {
+    return images[transform][index];
+  }
+
+  /**
+   * Returns the image of the given cell under the given transform.
+   *
+   * @param transform the transform, from 0 to TRANSFORMS - 1
+   * @param cell      the Coordinate of a cell of the board
+   * @return the shared Coordinate of its image
+   * @throws IllegalArgumentException if the board does not contain the cell
+   */
+  public Coordinate apply(int transform, Coordinate cell) {
+    int index = geometry.indexOf(cell.getQ(), cell.getR());
+    if (index < 0) {
+      throw new IllegalArgumentException("board does not contain this cell");
+    }
+    return geometry.coordinateAt(images[transform][index]);
+  }
+
+  /**
+   * Returns the transform that undoes the given one.
+   */
+  public static int inverse(int transform) {
+    if (transform >= ROTATIONS) {
+      return transform; // every reflection undoes itself
+    }
+    return (ROTATIONS - transform) % ROTATIONS;
+  }
+
+  /**
+   * Returns the canonical form of the given position.
+   *
+   * @param position a position of a board of this size
+   * @return its canonical hash and the transform that maps it to its canonical form
+   * @throws IllegalArgumentException if the position is of another board size
+   */
+  public Canonical canonicalize(BoardSnapshot position) {
+    if (position.getBoardSize() != geometry.getBoardSize()) {
+      throw new IllegalArgumentException("position is of another board size");
+    }
+    long[] hashes = new long[TRANSFORMS];
+    addDiscs(hashes, position.discsOf(PlayColor.BLACK), 0);
+    addDiscs(hashes, position.discsOf(PlayColor.WHITE), 1);
+    int best = 0;
+    for (int t = 1; t < TRANSFORMS; t++) {
+      if (hashes[t] < hashes[best]) {
+        best = t;
+      }
+    }
+    int ties = 0; // the transforms that map the position to the canonical image too
+    for (int t = best; t < TRANSFORMS; t++) {
+      if (hashes[t] == hashes[best]) {
+        ties |= 1 << t;
+      }
+    }
+    long hash = hashes[best];
+    if (position.getColor() == PlayColor.WHITE) {
+      hash ^= geometry.zobristWhiteToMove();
+    }
+    return new Canonical(hash, best, ties);
+  }
+
+  /**
+   * XORs the keys of every disc of the given bitset, of the color with the given offset, into
+   * the hash of every transform.
+   */
+  private void addDiscs(long[] hashes, long[] discs, int color) {
+    for (int word = 0; word < discs.length; word++) {
+      long bits = discs[word];
+      while (bits != 0) {
+        int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+        int base = (2 * index + color) * TRANSFORMS;
+        for (int t = 0; t < TRANSFORMS; t++) {
+          hashes[t] ^= keys[base + t];
+        }
+      }
+    }
+  }
+
+  /**
+   * Canonical is the canonical form of one position: the position hash of its canonical image
+   * and the transform that maps the position to that image, which also maps moves of the
+   * position to moves of the image and, undone, back. A symmetric position has several such
+   * transforms, and a move of it as many images, among which canonicalMove() picks one.
+   */
+  public final class Canonical {
+    private final long hash;
+    private final int transform;
+    private final int transforms; // the bit of every transform that maps to the canonical image
+
+    private Canonical(long hash, int transform, int transforms) {
+      this.hash = hash;
+      this.transform = transform;
+      this.transforms = transforms;
+    }
+
+    /**
+     * Returns the position hash of the canonical image, which is the same for every position
+     * that is a symmetry of this one.
+     */
+    public long getHash() {
+      return hash;
+    }
+
+    /**
+     * Returns the transform that maps the position to its canonical image.
+     */
+    public int getTransform() {
+      return transform;
+    }
+
+    /**
+     * Returns the cell of the canonical image that the given cell of the position maps to.
+     */
+    public Coordinate toCanonical(Coordinate cell) {
+      return apply(transform, cell);
+    }
+
+    /**
+     * Returns the cell of the position that the given cell of the canonical image comes from.
+     */
+    public Coordinate fromCanonical(Coordinate cell) {
+      return apply(inverse(transform), cell);
+    }
+
+    /**
+     * Returns the cell of the canonical image that stands for the given move of the position:
+     * of its images under every transform that maps the position to its canonical image, the
+     * one with the smallest index. Moves that are symmetries of each other in a symmetric
+     * position so stand for the same cell, which fromCanonical() maps back to one of them.
+     *
+     * @param move the Coordinate of a cell of the board
+     * @return the shared Coordinate of the cell that stands for it
+     * @throws IllegalArgumentException if the board does not contain the cell
+     */
+    public Coordinate canonicalMove(Coordinate move) {
+      int index = geometry.indexOf(move.getQ(), move.getR());
+      if (index < 0) {
+        throw new IllegalArgumentException("board does not contain this cell");
+      }
+      int smallest = apply(transform, index);
+      for (int t = transform + 1; t < TRANSFORMS; t++) {
+        if ((transforms & 1 << t) != 0) {
+          smallest = Math.min(smallest, apply(t, index));
+        }
+      }
+      return geometry.coordinateAt(smallest);
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LineTable holds the tables behind the LINE_TABLE MoveEngine for one board size.
+ * Every cell lies on three lines, one per hexagonal axis: the column of equal q ordered by r,
+ * the row of equal r ordered by q, and the diagonal of equal s ordered by q. Directions 2k and
+ * 2k + 1 of HexGeometry both follow the line of axis k, one towards lower positions and one
+ * towards higher positions. A model using the engine keeps, for every line, the bit pattern of the
+ * positions holding discs of each color.
+ * For every position p and pattern of opponent discs on a line, the outflank tables hold the
+ * position right past the run of opponent discs that starts next to p, in either direction, or
+ * -1 if there is no such run. A move closes the run off exactly when the player has a disc on
+ * that position, so finding the discs flipped in one direction takes one lookup and one bit test.
+ * Like HexGeometry, a LineTable is immutable and built once per board size.
+ */
+final class LineTable {
+  private static final Map<Integer, LineTable> TABLES = new ConcurrentHashMap<>();
+  // the direction of HexGeometry leading towards lower positions on the line of every axis
+  private static final int[] LOW = {HexGeometry.Q_UP, HexGeometry.R_LEFT, HexGeometry.S_DOWN};
+
+  private final int width; // the number of cells on the longest line, 2 * boardSize - 1
+  private final int[] lineOf; // the line of cell i on axis k is at 3 * i + k
+  private final int[] positionOf; // the position of cell i on its line of axis k is at 3 * i + k
+  private final int[] lineCells; // the index of the cell at position p of line l is at l * width + p
+  // the position past the run of opponent discs next to position p, or -1, for every pattern x
+  // of opponent discs, at (p << width) | x
+  private final byte[] outflankLow;
+  private final byte[] outflankHigh;
+
+  /**
+   * Returns the tables for boards with the given side length, building them the first time that
+   * size is asked for.
+   *
+   * @throws IllegalArgumentException if the board is too large for the LINE_TABLE engine
+   */
+  static LineTable of(int boardSize) {
+    if (boardSize > MoveEngine.MAX_TABLE_SIZE) {
+      throw new IllegalArgumentException("the LINE_TABLE engine supports board sizes up to "
+              + MoveEngine.MAX_TABLE_SIZE);
+    }
+    return TABLES.computeIfAbsent(boardSize, LineTable::new);
+  }
+
+  private LineTable(int boardSize) {
+    HexGeometry geometry = HexGeometry.of(boardSize);
+    this.width = 2 * boardSize - 1;
+    int cells = geometry.cellCount();
+    this.lineOf = new int[3 * cells];
+    this.positionOf = new int[3 * cells];
+    this.lineCells = new int[3 * width * width];
+    // a line is numbered after its first cell, which has no neighbor in the LOW direction
+    int[] lineStarting = new int[3 * cells];
+    int lines = 0;
+    for (int index = 0; index < cells; index++) {
+      for (int axis = 0; axis < 3; axis++) {
+        if (geometry.rayLength(index, LOW[axis]) == 0) {
+          lineStarting[3 * index + axis] = lines++;
+        }
+      }
+    }
+    for (int index = 0; index < cells; index++) {
+      for (int axis = 0; axis < 3; axis++) {
+        int position = geometry.rayLength(index, LOW[axis]);
+        int first = position == 0 ? index : geometry.rayCell(index, LOW[axis], position - 1);
+        int line = lineStarting[3 * first + axis];
+        lineOf[3 * index + axis] = line;
+        positionOf[3 * index + axis] = position;
+        lineCells[line * width + position] = index;
+      }
+    }
+
+    this.outflankLow = new byte[width << width];
+    this.outflankHigh = new byte[width << width];
+    for (int position = 0; position < width; position++) {
+      for (int opponent = 0; opponent < 1 << width; opponent++) {
+        outflankLow[(position << width) | opponent] = (byte) outflank(position, opponent, -1);
+        outflankHigh[(position << width) | opponent] = (byte) outflank(position, opponent, 1);
+      }
+    }
+  }
+
+  /**
+   * Walks from the given position in the given step across the run of opponent discs.
+   *
+   * @return the position past the run, or -1 if the run is empty or reaches the end of the line
+   */
+  private int outflank(int position, int opponent, int step) {
+    int next = position + step;
+    while (next >= 0 && next < width && (opponent & (1 << next)) != 0) {
+      next += step;
+    }
+    if (next == position + step || next < 0 || next >= width) {
+      return -1;
+    }
+    return next;
+  }
+
+  /**
+   * Returns the line the given cell lies on along the given direction of HexGeometry.
+   */
+  int line(int index, int direction) {
+    return lineOf[3 * index + (direction >> 1)];
+  }
+
+  /**
+   * Returns the position of the given cell on its line along the given direction of HexGeometry.
+   */
+  int position(int index, int direction) {
+    return positionOf[3 * index + (direction >> 1)];
+  }
+
+  /**
+   * Returns the index of the cell at the given position of the given line.
+   */
+  int cell(int line, int position) {
+    return lineCells[line * width + position];
+  }
+
+  /**
+   * Returns the number of lines of the board, which is the length of the bit pattern arrays a
+   * model keeps for each color.
+   */
+  int lineCount() {
+    return lineCells.length / width;
+  }
+
+  /**
+   * Returns the position on the line of the given direction where a run of opponent discs starting
+   * next to the given cell ends, or -1 if there is no such run. The run is closed off when the
+   * player has a disc on that position.
+   *
+   * @param index     the index of the cell a disc would be placed on
+   * @param direction the direction of HexGeometry to look in
+   * @param opponent  the bit patterns of the opponent's discs, by line
+   * @return the position past the run of opponent discs, or -1
+   */
+  int outflank(int index, int direction, int[] opponent) {
+    int slot = 3 * index + (direction >> 1);
+    int key = (positionOf[slot] << width) | opponent[lineOf[slot]];
+    return isHigh(direction) ? outflankHigh[key] : outflankLow[key];
+  }
+
+  /**
+   * Returns the number of opponent discs a disc placed on the given cell would flip in the given
+   * direction, in the same way as the ray walk of AbstractReversi.
+   *
+   * @param own      the bit patterns of the player's discs, by line
+   * @param opponent the bit patterns of the opponent's discs, by line
+   */
+  int bracketLength(int index, int direction, int[] own, int[] opponent) {
+    int end = outflank(index, direction, opponent);
+    if (end < 0 || (own[line(index, direction)] & (1 << end)) == 0) {
+      return 0;
+    }
+    return Math.abs(end - position(index, direction)) - 1;
+  }
+
+  /**
+   * Records the given Cell value of the given cell in the bit patterns of its three lines.
+   */
+  void record(int index, Cell cell, int[] black, int[] white) {
+    for (int axis = 0; axis < 3; axis++) {
+      int line = lineOf[3 * index + axis];
+      int bit = 1 << positionOf[3 * index + axis];
+      black[line] &= ~bit;
+      white[line] &= ~bit;
+      if (cell == Cell.BLACK) {
+        black[line] |= bit;
+      } else if (cell == Cell.WHITE) {
+        white[line] |= bit;
+      }
+    }
+  }
+
+  /**
+   * Returns whether the given direction of HexGeometry leads towards higher positions on its line.
+   */
+  static boolean isHigh(int direction) {
+    return direction == HexGeometry.Q_DOWN || direction == HexGeometry.R_RIGHT
+            || direction == HexGeometry.S_UP;
+  }
+}
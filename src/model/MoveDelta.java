@@ -0,0 +1,77 @@
+package model;
+
+/**
+ * MoveDelta records everything a call to makeMove() or makePass() changed, so that unmakeMove()
+ * can put the model back exactly as it was: the cell that was filled, the cells that were
+ * flipped, whose turn it was and how many passes in a row had been made.
+ * Cells are identified by their index in the HexGeometry of the model's board size.
+ * A MoveDelta is only meaningful to the model that produced it.
+ */
+public final class MoveDelta {
+  private static final int[] NO_FLIPS = new int[0];
+
+  private final int placed; // the index of the filled cell, or -1 if the player passed
+  final int[] flipped; // the indices of the flipped cells
+  private final PlayColor previousTurn; // the player who made the move
+  private final int previousPassed; // the number of passes in a row before the move
+
+  /**
+   * Constructs a MoveDelta for a move that filled the given cell and flipped the given cells.
+   */
+  MoveDelta(int placed, int[] flipped, PlayColor previousTurn, int previousPassed) {
+    this.placed = placed;
+    this.flipped = flipped;
+    this.previousTurn = previousTurn;
+    this.previousPassed = previousPassed;
+  }
+
+  /**
+   * Constructs a MoveDelta for a pass by the given player.
+   */
+  MoveDelta(PlayColor previousTurn, int previousPassed) {
+    this(-1, NO_FLIPS, previousTurn, previousPassed);
+  }
+
+  /**
+   * Returns true if this delta records a pass rather than a placed disc.
+   */
+  public boolean isPass() {
+    return placed < 0;
+  }
+
+  /**
+   * Returns the index of the cell the disc was placed on, or -1 if the player passed.
+   */
+  public int getPlaced() {
+    return placed;
+  }
+
+  /**
+   * Returns the number of discs the move flipped.
+   */
+  public int flippedCount() {
+    return flipped.length;
+  }
+
+  /**
+   * Returns the index of the i-th flipped cell, where i is less than flippedCount().
+   */
+  public int flippedCell(int i) {
+    return flipped[i];
+  }
+
+  /**
+   * Returns the color of the player who made the move, whose turn it will be again once the
+   * move is unmade.
+   */
+  public PlayColor getPreviousTurn() {
+    return previousTurn;
+  }
+
+  /**
+   * Returns the number of passes in a row that had been made before the move.
+   */
+  public int getPreviousPassed() {
+    return previousPassed;
+  }
+}
@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * An Enumeration of the ways a BasicReversi can find the discs a move flips and the moves that
+ * are legal. RAY_WALK walks the cells of each of the six rays leading away from a cell one by
+ * one. LINE_TABLE keeps every line of the board packed into one bit pattern per color and reads
+ * the end of the run a move would close off in each direction from a precomputed table, so each
+ * direction costs a single lookup. LINE_TABLE is only available for board sizes up to
+ * {@link #MAX_TABLE_SIZE}, where every line holds at most 15 cells.
+ */
+public enum MoveEngine {
+  RAY_WALK, LINE_TABLE;
+
+  /**
+   * The largest board size the LINE_TABLE engine supports.
+   */
+  public static final int MAX_TABLE_SIZE = 8;
+
+  /**
+   * Returns the engine a board of the given size uses unless another one is asked for, which is
+   * LINE_TABLE wherever it is available and RAY_WALK on larger boards.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @return the default MoveEngine for that board size
+   */
+  public static MoveEngine defaultFor(int boardSize) {
+    return boardSize <= MAX_TABLE_SIZE ? LINE_TABLE : RAY_WALK;
+  }
+}
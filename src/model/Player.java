@@ -35,4 +35,17 @@ public interface Player {
    * returns the move for the model.
    */
   Optional<Coordinate> chooseNextMove(ReversiModel model);
+
+  /**
+   * Lets the player think about the game of the given model while the opponent is to move.
+   * Players that cannot think ahead ignore this.
+   */
+  default void ponder(ReversiModel model) {
+  }
+
+  /**
+   * Stops any thinking started by ponder().
+   */
+  default void stopPondering() {
+  }
 }
@@ -0,0 +1,231 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * PlayoutBoard is a bare board for playing many fast games in a row, such as the random playouts
+ * of a Monte Carlo search. It only knows the discs, the player to move and the passes, stored as
+ * one bitset per color over the cell indices of the board's HexGeometry, and it follows the same
+ * rules as the models.
+ * Unlike a model, it has no listeners, no snapshots, no undo and no legal move bookkeeping:
+ * moves are found when asked for and played without being checked. In exchange, nothing it does
+ * after construction allocates, so a search can copy positions into it and play them out as
+ * often as it likes.
+ */
+public final class PlayoutBoard {
+  private final HexGeometry geometry; // the cell indices and rays of the board
+  private final long[] black; // bit i is set when the cell with index i holds a BLACK disc
+  private final long[] white; // bit i is set when the cell with index i holds a WHITE disc
+  private final int[] moves; // scratch space for the legal moves of a playout
+  private PlayColor turn; // the player to move
+  private int passed; // how many times the players have passed in a row
+
+  /**
+   * Constructs an empty PlayoutBoard for boards of the given size, with BLACK to move.
+   *
+   * @param boardSize the length in cells of every side of the board
+   * @throws IllegalArgumentException if the boardSize is less than 3
+   */
+  public PlayoutBoard(int boardSize) {
+    this.geometry = HexGeometry.of(boardSize);
+    this.black = new long[(geometry.cellCount() + 63) >>> 6];
+    this.white = new long[(geometry.cellCount() + 63) >>> 6];
+    this.moves = new int[geometry.cellCount()];
+    this.turn = PlayColor.BLACK;
+  }
+
+  /**
+   * Copies the discs, the player to move and the passes of the given snapshot, which must belong
+   * to a board of the same size.
+   *
+   * @param position the snapshot to copy the position of
+   * @throws IllegalArgumentException if the snapshot belongs to a board of another size
+   */
+  public void copyFrom(BoardSnapshot position) {
+    if (position.getBoardSize() != geometry.getBoardSize()) {
+      throw new IllegalArgumentException("snapshot belongs to a board of another size");
+    }
+    position.copyDiscs(black, white);
+    this.turn = position.getColor();
+    this.passed = position.getPassed();
+  }
+
+  /**
+   * Copies the position of another PlayoutBoard of the same board size.
+   *
+   * @param other the board to copy the position of
+   * @throws IllegalArgumentException if the other board has another size
+   */
+  public void copyFrom(PlayoutBoard other) {
+    if (other.geometry != geometry) {
+      throw new IllegalArgumentException("board has another size");
+    }
+    System.arraycopy(other.black, 0, black, 0, black.length);
+    System.arraycopy(other.white, 0, white, 0, white.length);
+    this.turn = other.turn;
+    this.passed = other.passed;
+  }
+
+  /**
+   * Packs the discs of the position into the given array from the given offset, the same way as
+   * {@link BoardSnapshot#packDiscs(long[], int)}.
+   *
+   * @param into   the array to pack into
+   * @param offset the index of the first word to write
+   * @throws IndexOutOfBoundsException if the array has no room for both bitsets at the offset
+   */
+  public void packDiscs(long[] into, int offset) {
+    System.arraycopy(black, 0, into, offset, black.length);
+    System.arraycopy(white, 0, into, offset + black.length, white.length);
+  }
+
+  /**
+   * Returns the player to move.
+   */
+  public PlayColor getColor() {
+    return turn;
+  }
+
+  /**
+   * Returns how many times the players have passed in a row.
+   */
+  public int getPassed() {
+    return passed;
+  }
+
+  /**
+   * Returns a 64-bit hash of the discs and the player to move, computed from the disc bitsets
+   * whenever it is asked for. It is not the Zobrist hash of the models, so the two must not be
+   * mixed in one table.
+   */
+  public long hash() {
+    long hash = turn == PlayColor.BLACK ? 0 : 0x9E3779B97F4A7C15L;
+    for (int i = 0; i < black.length; i++) {
+      hash = mix(hash ^ black[i]);
+      hash = mix(hash ^ white[i] ^ 0x632BE59BD9B4E019L);
+    }
+    return hash;
+  }
+
+  /**
+   * The finalizer of SplitMix64, which spreads every input bit over the whole result.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Returns the number of discs of the given player.
+   */
+  public int getScore(PlayColor p) {
+    long[] discs = p == PlayColor.BLACK ? black : white;
+    int count = 0;
+    for (long word : discs) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /**
+   * Writes the index of every cell the player to move may legally play into the given array, in
+   * increasing order.
+   *
+   * @param into receives the indices; it must have room for one per cell of the board
+   * @return the number of legal moves written
+   */
+  public int legalMoves(int[] into) {
+    long[] own = turn == PlayColor.BLACK ? black : white;
+    long[] other = turn == PlayColor.BLACK ? white : black;
+    int count = 0;
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      if (!AbstractReversi.isSet(own, index) && !AbstractReversi.isSet(other, index)
+              && closesOff(index, own, other)) {
+        into[count++] = index;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns whether the player to move may legally play on the cell with the given index.
+   *
+   * @param index the index of the cell, which must be on the board
+   */
+  public boolean isLegal(int index) {
+    long[] own = turn == PlayColor.BLACK ? black : white;
+    long[] other = turn == PlayColor.BLACK ? white : black;
+    return !AbstractReversi.isSet(own, index) && !AbstractReversi.isSet(other, index)
+            && closesOff(index, own, other);
+  }
+
+  /**
+   * Returns whether a disc on the given EMPTY cell would close off a run of the other player's
+   * discs in at least one direction.
+   */
+  private boolean closesOff(int index, long[] own, long[] other) {
+    int[] rays = geometry.rayCells();
+    for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+      int start = geometry.rayStart(index, d);
+      int end = geometry.rayStart(index, d + 1);
+      int i = start;
+      while (i < end && AbstractReversi.isSet(other, rays[i])) {
+        i++;
+      }
+      if (i > start && i < end && AbstractReversi.isSet(own, rays[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Plays the given move for the player to move, which must be legal, flipping every run of
+   * discs it closes off, and passes the turn on.
+   *
+   * @param index the index of the cell to play, or -1 to pass
+   */
+  public void play(int index) {
+    if (index >= 0) {
+      long[] own = turn == PlayColor.BLACK ? black : white;
+      long[] other = turn == PlayColor.BLACK ? white : black;
+      int[] rays = geometry.rayCells();
+      for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+        int start = geometry.rayStart(index, d);
+        int end = geometry.rayStart(index, d + 1);
+        int i = start;
+        while (i < end && AbstractReversi.isSet(other, rays[i])) {
+          i++;
+        }
+        if (i > start && i < end && AbstractReversi.isSet(own, rays[i])) {
+          for (int j = start; j < i; j++) {
+            AbstractReversi.clear(other, rays[j]);
+            AbstractReversi.set(own, rays[j]);
+          }
+        }
+      }
+      AbstractReversi.set(own, index);
+      this.passed = 0;
+    } else {
+      this.passed++;
+    }
+    this.turn = turn == PlayColor.BLACK ? PlayColor.WHITE : PlayColor.BLACK;
+  }
+
+  /**
+   * Plays uniformly random legal moves, passing whenever the player to move has none, until both
+   * players had to pass in a row, and returns how many more discs BLACK has than WHITE at the
+   * end.
+   *
+   * @param random the source of the random moves
+   * @return the final number of BLACK discs minus the final number of WHITE discs
+   */
+  public int playRandomGame(SplittableRandom random) {
+    while (passed < 2) {
+      int count = legalMoves(moves);
+      play(count == 0 ? -1 : moves[random.nextInt(count)]);
+    }
+    return getScore(PlayColor.BLACK) - getScore(PlayColor.WHITE);
+  }
+}
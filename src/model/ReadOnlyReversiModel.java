@@ -16,6 +16,7 @@ public interface ReadOnlyReversiModel {
    * The isGameOver method returns true if there are no moves left for either player. This could
    * mean that a player won and took all or the majority of the tiles. It could also mean there
    * are no available moves left for either player or that both players passed on their last turns.
+   * The answer is derived once whenever the position changes and cached, so asking is cheap.
    * @return true if the game is over based on the criteria listed above, false if any other state
    *         is true (moves still available).
    */
@@ -23,12 +24,36 @@ public interface ReadOnlyReversiModel {
 
   /**
    * The getScore method returns the score of the given player PlayColor, where PlayColor must be
-   * BLACK or WHITE.
+   * BLACK or WHITE. The model keeps count of the discs as they are placed and flipped, so this
+   * never scans the board.
    * @param p the PlayColor associated with the color of the cells that will add to the score
    * @return the number of cells with the color matching the player Turn
    */
   public int getScore(PlayColor p);
 
+  /**
+   * The getEmptyCount method returns the number of cells that do not hold a disc.
+   * @return the number of EMPTY cells on the board
+   */
+  int getEmptyCount();
+
+  /**
+   * The getScores method returns the scores of both players, and the number of EMPTY cells, as
+   * they were at one single moment. Unlike two calls to getScore(), the two scores can never
+   * belong to different positions, even while another thread is playing moves on the model.
+   * @return a ScoreSnapshot of both scores
+   */
+  ScoreSnapshot getScores();
+
+  /**
+   * The getPositionHash method returns a 64-bit Zobrist hash of the position, covering the
+   * contents of every cell and the player whose turn it is. Two models of the same board size in
+   * the same position always have the same hash. The model updates the hash as moves are made,
+   * so this never scans the board.
+   * @return the hash of the current position
+   */
+  long getPositionHash();
+
   /**
    * The getCell method returns the Cell value associated with the cell at the Coordinate
    * given by q and r, where the Cell value must be BLACK, WHITE, or EMPTY.
@@ -49,8 +74,19 @@ public interface ReadOnlyReversiModel {
    */
   public int getBoardSize();
 
+  /**
+   * The snapshot method returns an immutable BoardSnapshot of the latest position the game
+   * reached through move(), pass() or startGame(). The model publishes a new snapshot whenever
+   * the game moves on, so this is cheap, never copies the board, and is safe to call from any
+   * thread while another thread plays moves. Positions explored by strategies with makeMove()
+   * are never published.
+   * @return the BoardSnapshot of the latest position
+   */
+  BoardSnapshot snapshot();
+
   /**
    * This just returns a new HashMap of the board's values.
+   * Readers that only need to look at the cells should prefer snapshot(), which does not copy.
    * There are no mutable objects within the board, so there is no need to create deep copies.
    * Enums are not changeable.
    */
@@ -58,14 +94,23 @@ public interface ReadOnlyReversiModel {
 
   /**
    * The hasNoMoves method is a helper to determine if a player of the given PlayColor has
-   * ANY physically possible moves. It checks every cell and every relation to that cell to ensure
-   * that it is thorough and accurate.
+   * ANY physically possible moves. The model keeps the legal moves of both players up to date
+   * after every move, so this does not need to check every cell again.
    *
    * @param p the PlayColor of the player whose potential moves are being checked
    * @return true if the player has NO possible moves that can be made, otherwise false
    */
   boolean hasNoMoves(PlayColor p);
 
+  /**
+   * The getMobility method returns the number of legal moves the player of the given PlayColor
+   * has. The model keeps this count up to date with the legal moves, so it is read, not counted.
+   *
+   * @param p the PlayColor of the player whose legal moves are counted
+   * @return the number of cells the player may legally play
+   */
+  int getMobility(PlayColor p);
+
   /**
    * The validMoveLogic method is a helper for the move() method which determines if there are
    * any valid flows from the target cell provided. It will return true if there are any valid
@@ -78,17 +123,43 @@ public interface ReadOnlyReversiModel {
    */
   boolean validMoveLogic(int q, int r, PlayColor p);
 
+  /**
+   * The flipDirections method finds the directions in which a move by the given player on the
+   * target cell would flip discs, without allocating anything.
+   * Bit d of the result is set when direction d would flip, where the directions are numbered as
+   * HexGeometry.Q_UP, Q_DOWN, R_RIGHT, R_LEFT, S_UP and S_DOWN. The move is legal exactly when
+   * the result is not 0.
+   *
+   * @param q the q value of the target cell
+   * @param r the r value of the target cell
+   * @param p the PlayerColor of the player whose move is being checked
+   * @return the 6-bit mask of the flipping directions, 0 if the cell is not EMPTY or no
+   *         direction flips
+   * @throws IllegalArgumentException if the board does not contain the target cell
+   */
+  int flipDirections(int q, int r, PlayColor p) throws IllegalArgumentException;
+
+  /**
+   * The flipCount method counts the discs a move by the given player on the target cell would
+   * flip in all six directions together, without allocating anything.
+   *
+   * @param q the q value of the target cell
+   * @param r the r value of the target cell
+   * @param p the PlayerColor of the player whose move is being checked
+   * @return the number of discs the move would flip, 0 if the move is not legal
+   * @throws IllegalArgumentException if the board does not contain the target cell
+   */
+  int flipCount(int q, int r, PlayColor p) throws IllegalArgumentException;
+
   /**
    * The findQPathsDown method is a helper for the validMoveLogic method which determines
    * if there are any flows leading from the target downwards.
    *
    * @param coord  the Coordinate key of the target
    * @param target the Cell value of the target
-   * @return a HashMap of Coordinate, Cell containing any cells with the same color as the target in
-   *         the proper direction with cells of the opposite color in between and no empty cells in
-   *         between. We chose to use a HashMap instead of just one Coordinate because it is
-   *         possible for multiple cells of the matching color to exist in the flow without being
-   *         the last cell.
+   * @return a HashMap of Coordinate, Cell containing the nearest cell with the same color as the
+   *         target in the proper direction, if only cells of the opposite color (at least one)
+   *         lie in between; otherwise an empty HashMap.
    */
   Map<Coordinate, Cell> findQPathsDown(Coordinate coord, Cell target);
 
@@ -98,11 +169,9 @@ public interface ReadOnlyReversiModel {
    *
    * @param coord  the Coordinate key of the target
    * @param target the Cell value of the target
-   * @return a HashMap of Coordinate, Cell containing any cells with the same color as the target in
-   *         the proper direction with cells of the opposite color in between and no empty cells in
-   *         between. We chose to use a HashMap instead of just one Coordinate because it is
-   *         possible for multiple cells of the matching color to exist in the flow without being
-   *         the last cell.
+   * @return a HashMap of Coordinate, Cell containing the nearest cell with the same color as the
+   *         target in the proper direction, if only cells of the opposite color (at least one)
+   *         lie in between; otherwise an empty HashMap.
    */
   Map<Coordinate, Cell> findQPathsUp(Coordinate coord, Cell target);
 
@@ -112,11 +181,9 @@ public interface ReadOnlyReversiModel {
    *
    * @param coord  the Coordinate key of the target
    * @param target the Cell value of the target
-   * @return a HashMap of Coordinate, Cell containing any cells with the same color as the target in
-   *         the proper direction with cells of the opposite color in between and no empty cells in
-   *         between. We chose to use a HashMap instead of just one Coordinate because it is
-   *         possible for multiple cells of the matching color to exist in the flow without being
-   *         the last cell.
+   * @return a HashMap of Coordinate, Cell containing the nearest cell with the same color as the
+   *         target in the proper direction, if only cells of the opposite color (at least one)
+   *         lie in between; otherwise an empty HashMap.
    */
   Map<Coordinate, Cell> findRPathsRight(Coordinate coord, Cell target);
 
@@ -126,11 +193,9 @@ public interface ReadOnlyReversiModel {
    *
    * @param coord  the Coordinate key of the target
    * @param target the Cell value of the target
-   * @return a HashMap of Coordinate, Cell containing any cells with the same color as the target in
-   *         the proper direction with cells of the opposite color in between and no empty cells in
-   *         between. We chose to use a HashMap instead of just one Coordinate because it is
-   *         possible for multiple cells of the matching color to exist in the flow without being
-   *         the last cell.
+   * @return a HashMap of Coordinate, Cell containing the nearest cell with the same color as the
+   *         target in the proper direction, if only cells of the opposite color (at least one)
+   *         lie in between; otherwise an empty HashMap.
    */
   Map<Coordinate, Cell> findRPathsLeft(Coordinate coord, Cell target);
 
@@ -140,11 +205,9 @@ public interface ReadOnlyReversiModel {
    *
    * @param coord  the Coordinate key of the target
    * @param target the Cell value of the target
-   * @return a HashMap of Coordinate, Cell containing any cells with the same color as the target in
-   *         the proper direction with cells of the opposite color in between and no empty cells in
-   *         between. We chose to use a HashMap instead of just one Coordinate because it is
-   *         possible for multiple cells of the matching color to exist in the flow without being
-   *         the last cell.
+   * @return a HashMap of Coordinate, Cell containing the nearest cell with the same color as the
+   *         target in the proper direction, if only cells of the opposite color (at least one)
+   *         lie in between; otherwise an empty HashMap.
    */
   Map<Coordinate, Cell> findSPathsUp(Coordinate coord, Cell target);
 
@@ -154,11 +217,9 @@ public interface ReadOnlyReversiModel {
    *
    * @param coord  the Coordinate key of the target
    * @param target the Cell value of the target
-   * @return a HashMap of Coordinate, Cell containing any cells with the same color as the target in
-   *         the proper direction with cells of the opposite color in between and no empty cells in
-   *         between. We chose to use a HashMap instead of just one Coordinate because it is
-   *         possible for multiple cells of the matching color to exist in the flow without being
-   *         the last cell.
+   * @return a HashMap of Coordinate, Cell containing the nearest cell with the same color as the
+   *         target in the proper direction, if only cells of the opposite color (at least one)
+   *         lie in between; otherwise an empty HashMap.
    */
   Map<Coordinate, Cell> findSPathsDown(Coordinate coord, Cell target);
 
@@ -181,10 +242,20 @@ public interface ReadOnlyReversiModel {
   Map<Coordinate, Cell> returnBoard();
 
   /**
-   * Return an ArrayList of all the coordinates where there are possible moves.
+   * Return an ArrayList of all the coordinates where there are possible moves for the player
+   * whose turn it is, read from the legal moves the model keeps up to date.
    */
   ArrayList<Coordinate> getAllMoves();
 
+  /**
+   * Writes the index in the board's HexGeometry of every cell the player whose turn it is may
+   * legally play into the given array, in increasing order, without allocating anything.
+   *
+   * @param into receives the indices; it must have room for one per cell of the board
+   * @return the number of legal moves written
+   */
+  int legalMoves(int[] into);
+
   /**
    * Returns the color of the current player's turn.
    */
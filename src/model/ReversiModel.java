@@ -27,6 +27,38 @@ public interface ReversiModel extends ReadOnlyReversiModel {
    */
   public void pass();
 
+  /**
+   * The makeMove method places a disc of the player whose turn it is on the given location, like
+   * move(), but returns a MoveDelta recording what changed so that unmakeMove() can take the
+   * move back. It is meant for strategies that explore many moves on one model, so it never
+   * updates the ModelStatus or notifies the listeners, and it never passes on the player's
+   * behalf; use makePass() when the player has no moves.
+   * @param q the q-value for the Coordinate of the location of the desired cell
+   * @param r the r-value for the Coordinate of the location of desired cell
+   * @return the MoveDelta describing the move
+   * @throws IllegalArgumentException if the board does not contain the cell
+   * @throws IllegalStateException if the move is not legal for the player whose turn it is
+   */
+  MoveDelta makeMove(int q, int r) throws IllegalArgumentException, IllegalStateException;
+
+  /**
+   * The makePass method passes the turn of the current player, like pass(), but returns a
+   * MoveDelta so that unmakeMove() can take the pass back. Like makeMove(), it never updates the
+   * ModelStatus or notifies the listeners.
+   * @return the MoveDelta describing the pass
+   */
+  MoveDelta makePass();
+
+  /**
+   * The unmakeMove method restores the model exactly to the state it was in before the move or
+   * pass described by the given MoveDelta, which must be the most recent one made with makeMove()
+   * or makePass() that has not been unmade yet. Calls to move() or pass() forget every earlier
+   * MoveDelta. It never updates the ModelStatus or notifies the listeners.
+   * @param delta the MoveDelta of the most recent move
+   * @throws IllegalStateException if the delta is not the most recent one
+   */
+  void unmakeMove(MoveDelta delta) throws IllegalStateException;
+
 
   /**
    * The switchTurn() method is a helper used in multiple methods that changes the playColor
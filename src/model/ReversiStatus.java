@@ -18,9 +18,13 @@ public class ReversiStatus implements ModelStatus {
     this.status = Status.NotStarted;
   }
 
+  /**
+   * Reads whether the game is over from the latest snapshot the model published, which carries
+   * the game state the model already derived for that position.
+   */
   @Override
   public void updateStatus(ReadOnlyReversiModel model) {
-    if (model.isGameOver()) {
+    if (model.snapshot().isGameOver()) {
       this.status = Status.END;
     }
     else {
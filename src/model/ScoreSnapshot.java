@@ -0,0 +1,60 @@
+package model;
+
+/**
+ * ScoreSnapshot holds the number of BLACK discs, WHITE discs and EMPTY cells of a model as they
+ * were at one single moment, so the two scores read from it always belong to the same position.
+ */
+public final class ScoreSnapshot {
+  private final int black; // the number of BLACK discs
+  private final int white; // the number of WHITE discs
+  private final int empty; // the number of EMPTY cells
+
+  /**
+   * Constructs a ScoreSnapshot from the given counts.
+   *
+   * @param black the number of BLACK discs
+   * @param white the number of WHITE discs
+   * @param empty the number of EMPTY cells
+   */
+  public ScoreSnapshot(int black, int white, int empty) {
+    this.black = black;
+    this.white = white;
+    this.empty = empty;
+  }
+
+  /**
+   * Returns the score of the given PlayColor, meaning the number of discs of its color.
+   */
+  public int getScore(PlayColor p) {
+    return p == PlayColor.BLACK ? black : white;
+  }
+
+  /**
+   * Returns the number of EMPTY cells.
+   */
+  public int getEmpty() {
+    return empty;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof ScoreSnapshot)) {
+      return false;
+    }
+    ScoreSnapshot other = (ScoreSnapshot) obj;
+    return black == other.black && white == other.white && empty == other.empty;
+  }
+
+  @Override
+  public int hashCode() {
+    return (black * 31 + white) * 31 + empty;
+  }
+
+  @Override
+  public String toString() {
+    return "BLACK " + black + " - WHITE " + white;
+  }
+}
@@ -19,7 +19,9 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JOptionPane;
 import javax.swing.JButton;
+import model.BoardSnapshot;
 import model.Coordinate;
+import model.HexGeometry;
 import model.ReadOnlyReversiModel;
 
 /**
@@ -30,6 +32,7 @@ import model.ReadOnlyReversiModel;
 public class BasicReversiView extends JFrame implements ReversiView {
   private final int size; // depicts the length of each hexagonal side.
   private final int height; // depicts the height of the board.
+  private final HexGeometry geometry; // holds the shared Coordinate of every hexagon.
   private final ReadOnlyReversiModel model;
   private ArrayList<HexagonButton> board;
   private Color background_color = new Color(38, 38, 38);
@@ -45,6 +48,7 @@ public class BasicReversiView extends JFrame implements ReversiView {
   public BasicReversiView(ReadOnlyReversiModel model) {
     this.size = model.getBoardSize();
     this.height = this.size * 2 - 1;
+    this.geometry = HexGeometry.of(this.size);
     this.model = model;
     this.board = new ArrayList<HexagonButton>();
     JPanel displayPanels = new JPanel();
@@ -61,8 +65,9 @@ public class BasicReversiView extends JFrame implements ReversiView {
   @Override
   public Map<Coordinate, ButtonView> boardMap() {
     Map<Coordinate, ButtonView> output = new LinkedHashMap<>();
+    ArrayList<Coordinate> all_coordinates = getAllCoordinates();
     for (int i = 0; i < board.size(); i++) {
-      Coordinate key = getAllCoordinates().get(i);
+      Coordinate key = all_coordinates.get(i);
       ButtonView value = board.get(i);
       output.put(key, value);
     }
@@ -171,7 +176,8 @@ public class BasicReversiView extends JFrame implements ReversiView {
 
   @Override
   public void displayColorLabel() {
-    turn.setText("Turn: " + model.getColor());
+    BoardSnapshot position = model.snapshot();
+    turn.setText("Turn: " + position.getColor() + "   " + position.getScores());
   }
 
   /**
@@ -285,7 +291,7 @@ public class BasicReversiView extends JFrame implements ReversiView {
 
     for (int width: row_config) {
       for (int col = row_start; col < this.size; col++) {
-        output.add(new Coordinate(col, height_start));
+        output.add(geometry.coordinateOf(col, height_start));
       }
       height_start += 1;
       row_start -= 1;
@@ -303,7 +309,7 @@ public class BasicReversiView extends JFrame implements ReversiView {
     int row_start = -Math.floorDiv(this.height, 2);
 
     for (int i = row_start; i < -row_start + 1; i++) {
-      output.add(new Coordinate(i, 0));
+      output.add(geometry.coordinateOf(i, 0));
     }
 
     return output;
@@ -327,7 +333,7 @@ public class BasicReversiView extends JFrame implements ReversiView {
 
     for (int width: row_config) {
       for (int col = -Math.floorDiv(this.height, 2); col < row_end; col++) {
-        output.add(new Coordinate(col, height_start));
+        output.add(geometry.coordinateOf(col, height_start));
       }
       height_start += 1;
       row_end -= 1;
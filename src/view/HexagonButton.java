@@ -12,6 +12,7 @@ import java.awt.Graphics2D;
 
 import model.Cell;
 import model.Coordinate;
+import model.HexGeometry;
 import model.ReadOnlyReversiModel;
 
 /**
@@ -33,7 +34,7 @@ public class HexagonButton extends JButton implements ButtonView {
    */
   public HexagonButton(ReadOnlyReversiModel m) {
     // initialize the button's coordinates to (0, 0);
-    this.coordinates = new Coordinate(0, 0);
+    this.coordinates = HexGeometry.of(m.getBoardSize()).coordinateOf(0, 0);
     this.model = m;
     // make button transparent
     setOpaque(false);
@@ -135,12 +136,12 @@ public class HexagonButton extends JButton implements ButtonView {
   @Override
   public Color getPlayerColor() {
     Color c = TRANSPARENT_COLOR;
-    if (this.model.getCell(this.coordinates.getQ(),
-            this.coordinates.getR()) == Cell.WHITE) {
+    // read the published snapshot, so a repaint never sees a move the model is in the middle of
+    Cell cell = this.model.snapshot().getCell(this.coordinates.getQ(), this.coordinates.getR());
+    if (cell == Cell.WHITE) {
       c = Color.WHITE;
     }
-    else if (this.model.getCell(this.coordinates.getQ(),
-            this.coordinates.getR()) == Cell.BLACK) {
+    else if (cell == Cell.BLACK) {
       c = BLACK_COLOR;
     }
     return c;
@@ -16,6 +16,7 @@ import java.awt.Insets;
 import java.awt.Color;
 
 import model.Coordinate;
+import model.HexGeometry;
 import model.ReadOnlyReversiModel;
 
 /**
@@ -26,6 +27,7 @@ import model.ReadOnlyReversiModel;
 public class MockBasicReversiView extends JFrame implements ReversiView {
   private final int size; // depicts the length of each hexagonal side.
   private final int height; // depicts the height of the board.
+  private final HexGeometry geometry; // holds the shared Coordinate of every hexagon.
   private final ReadOnlyReversiModel model;
   private ArrayList<ButtonView> board;
   private Color background_color = new Color(38, 38, 38);
@@ -42,6 +44,7 @@ public class MockBasicReversiView extends JFrame implements ReversiView {
   public MockBasicReversiView(ReadOnlyReversiModel model, int x, int y) {
     this.size = model.getBoardSize();
     this.height = this.size * 2 - 1;
+    this.geometry = HexGeometry.of(this.size);
     this.model = model;
     this.x = x;
     this.y = y;
@@ -57,8 +60,9 @@ public class MockBasicReversiView extends JFrame implements ReversiView {
   @Override
   public Map<Coordinate, ButtonView> boardMap() {
     Map<Coordinate, ButtonView> output = new LinkedHashMap<>();
+    ArrayList<Coordinate> all_coordinates = getAllCoordinates();
     for (int i = 0; i < board.size(); i++) {
-      Coordinate key = getAllCoordinates().get(i);
+      Coordinate key = all_coordinates.get(i);
       ButtonView value = board.get(i);
       output.put(key, value);
     }
@@ -175,7 +179,7 @@ public class MockBasicReversiView extends JFrame implements ReversiView {
     if (!clicked_on_button) {
       deselectAll();
     }
-    return new Coordinate(1, 1);
+    return geometry.coordinateOf(1, 1);
   }
 
 
@@ -251,7 +255,7 @@ public class MockBasicReversiView extends JFrame implements ReversiView {
 
     for (int width: row_config) {
       for (int col = row_start; col < this.size; col++) {
-        output.add(new Coordinate(col, height_start));
+        output.add(geometry.coordinateOf(col, height_start));
       }
       height_start += 1;
       row_start -= 1;
@@ -269,7 +273,7 @@ public class MockBasicReversiView extends JFrame implements ReversiView {
     int row_start = -Math.floorDiv(this.height, 2);
 
     for (int i = row_start; i < -row_start + 1; i++) {
-      output.add(new Coordinate(i, 0));
+      output.add(geometry.coordinateOf(i, 0));
     }
 
     return output;
@@ -293,7 +297,7 @@ public class MockBasicReversiView extends JFrame implements ReversiView {
 
     for (int width: row_config) {
       for (int col = -Math.floorDiv(this.height, 2); col < row_end; col++) {
-        output.add(new Coordinate(col, height_start));
+        output.add(geometry.coordinateOf(col, height_start));
       }
       height_start += 1;
       row_end -= 1;
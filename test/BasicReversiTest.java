@@ -1,23 +1,62 @@
 import org.junit.Assert;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
 
 import model.BasicReversi;
+import model.BitboardReversi;
+import model.BoardSnapshot;
 import model.Cell;
+import model.Coordinate;
+import model.HexGeometry;
+import model.MoveEngine;
+import model.MoveDelta;
 import model.ReversiModel;
 import model.PlayColor;
+import model.PlayoutBoard;
+import model.ReversiStatus;
+import model.ScoreSnapshot;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
 
 /**
- * The purpose of BasicReversiTest is to contain the tests for the BasicReversi class using
- * instances from that class as well as instances of ReversiMock, a mock class for BasicReversi.
+ * The purpose of BasicReversiTest is to contain the tests for the rules of the game, run against
+ * every model: BasicReversi with each MoveEngine, and BitboardReversi. Every test builds its
+ * models with the factory of the model under test.
  */
+@RunWith(Parameterized.class)
 public class BasicReversiTest {
 
+  @Parameters(name = "{0}")
+  public static Collection<Object[]> models() {
+    IntFunction<ReversiModel> rayWalk =
+        size -> new BasicReversi(size, new ReversiStatus(), MoveEngine.RAY_WALK);
+    IntFunction<ReversiModel> lineTable =
+        size -> new BasicReversi(size, new ReversiStatus(), MoveEngine.LINE_TABLE);
+    IntFunction<ReversiModel> bitboard = BitboardReversi::new;
+    return Arrays.asList(new Object[][] {
+        {"BasicReversi RAY_WALK", rayWalk},
+        {"BasicReversi LINE_TABLE", lineTable},
+        {"BitboardReversi", bitboard}});
+  }
+
+  @Parameter(0)
+  public String name;
+
+  @Parameter(1)
+  public IntFunction<ReversiModel> factory;
+
   ReversiModel reversi;
-  BasicReversi mock;
+  ReversiModel mock;
 
   private void init() {
-    reversi = new BasicReversi(3);
-    mock = new BasicReversi(3);
+    reversi = factory.apply(3);
+    mock = factory.apply(3);
   }
 
   // testing constructor
@@ -38,7 +77,7 @@ public class BasicReversiTest {
   @Test
   public void testInitialBoardValues() {
     this.init();
-    ReversiModel biggerReversi = new BasicReversi(7);
+    ReversiModel biggerReversi = factory.apply(7);
     Assert.assertEquals(3, reversi.getScore(PlayColor.BLACK));
     Assert.assertEquals(3, reversi.getScore(PlayColor.WHITE));
     Assert.assertEquals(3, reversi.getBoardSize());
@@ -50,20 +89,20 @@ public class BasicReversiTest {
   @Test
   public void testInitialBoardTurn() {
     this.init();
-    Assert.assertEquals(PlayColor.BLACK, mock.getTurn());
+    Assert.assertEquals(PlayColor.BLACK, mock.getColor());
   }
 
   @Test
   public void testInitialBoardSize() {
     this.init();
-    Assert.assertEquals(19, mock.boardTotal());
-    BasicReversi mock2 = new BasicReversi(4);
-    Assert.assertEquals(37, mock2.boardTotal());
+    Assert.assertEquals(19, mock.getCopyBoard().size());
+    ReversiModel mock2 = factory.apply(4);
+    Assert.assertEquals(37, mock2.getCopyBoard().size());
   }
 
   @Test (expected = IllegalArgumentException.class)
   public void testReversiConstructorTooSmall() {
-    ReversiModel badReversi = new BasicReversi(2);
+    ReversiModel badReversi = factory.apply(2);
     badReversi.getScore(PlayColor.BLACK);
   }
 
@@ -72,9 +111,9 @@ public class BasicReversiTest {
   public void testPassSwitchesTurns() {
     this.init();
     mock.pass();
-    Assert.assertEquals(PlayColor.WHITE, mock.getTurn());
+    Assert.assertEquals(PlayColor.WHITE, mock.getColor());
     mock.pass();
-    Assert.assertEquals(PlayColor.BLACK, mock.getTurn());
+    Assert.assertEquals(PlayColor.BLACK, mock.getColor());
     Assert.assertTrue(mock.isGameOver());
   }
 
@@ -87,7 +126,7 @@ public class BasicReversiTest {
     mock.pass();
     mock.move(1, 1);
     mock.move(0, 0);
-    Assert.assertEquals(1, mock.getPassed());
+    Assert.assertEquals(1, mock.snapshot().getPassed());
   }
 
   // test move
@@ -230,6 +269,234 @@ public class BasicReversiTest {
     Assert.assertTrue(reversi.isGameOver());
   }
 
+  // test getAllMoves and hasNoMoves
+  @Test
+  public void testAllMovesInitialBoard() {
+    this.init();
+    Assert.assertEquals(6, reversi.getAllMoves().size());
+    Assert.assertTrue(reversi.getAllMoves().contains(new Coordinate(2, -1)));
+    Assert.assertTrue(reversi.getAllMoves().contains(new Coordinate(-1, -1)));
+    Assert.assertFalse(reversi.getAllMoves().contains(new Coordinate(0, 0)));
+  }
+
+  @Test
+  public void testAllMovesUpdatedAfterMove() {
+    this.init();
+    reversi.move(2, -1);
+    Assert.assertEquals(PlayColor.WHITE, reversi.getColor());
+    Assert.assertEquals(3, reversi.getAllMoves().size());
+    Assert.assertTrue(reversi.getAllMoves().contains(new Coordinate(1, -2)));
+    Assert.assertFalse(reversi.getAllMoves().contains(new Coordinate(2, -1)));
+    Assert.assertFalse(reversi.validMoveLogic(-1, -1, PlayColor.WHITE));
+    Assert.assertFalse(reversi.hasNoMoves(PlayColor.BLACK));
+  }
+
+  @Test
+  public void testNoMovesLeftForLosingColor() {
+    this.init();
+    reversi.move(2, -1);
+    reversi.pass();
+    reversi.move(-1, -1);
+    reversi.pass();
+    reversi.move(1, 1);
+    Assert.assertTrue(reversi.hasNoMoves(PlayColor.WHITE));
+    Assert.assertTrue(reversi.hasNoMoves(PlayColor.BLACK));
+    Assert.assertTrue(reversi.getAllMoves().isEmpty());
+  }
+
+  // test makeMove, makePass and unmakeMove
+  @Test
+  public void testMakeMoveThenUnmake() {
+    this.init();
+    MoveDelta delta = reversi.makeMove(2, -1);
+    Assert.assertEquals(1, delta.flippedCount());
+    Assert.assertEquals(PlayColor.BLACK, delta.getPreviousTurn());
+    Assert.assertEquals(Cell.BLACK, reversi.getCell(1, -1));
+    Assert.assertEquals(PlayColor.WHITE, reversi.getColor());
+    reversi.unmakeMove(delta);
+    Assert.assertEquals(Cell.EMPTY, reversi.getCell(2, -1));
+    Assert.assertEquals(Cell.WHITE, reversi.getCell(1, -1));
+    Assert.assertEquals(PlayColor.BLACK, reversi.getColor());
+    Assert.assertEquals(3, reversi.getScore(PlayColor.BLACK));
+    Assert.assertEquals(6, reversi.getAllMoves().size());
+  }
+
+  @Test
+  public void testMakePassThenUnmake() {
+    this.init();
+    MoveDelta first = mock.makePass();
+    MoveDelta second = mock.makePass();
+    Assert.assertTrue(first.isPass());
+    Assert.assertTrue(mock.isGameOver());
+    mock.unmakeMove(second);
+    mock.unmakeMove(first);
+    Assert.assertEquals(PlayColor.BLACK, mock.getColor());
+    Assert.assertFalse(mock.isGameOver());
+    // the passes are forgotten, so one more pass does not end the game
+    mock.pass();
+    Assert.assertFalse(mock.isGameOver());
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testUnmakeOutOfOrder() {
+    this.init();
+    MoveDelta first = reversi.makeMove(2, -1);
+    reversi.makeMove(1, -2);
+    reversi.unmakeMove(first);
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testMakeIllegalMove() {
+    this.init();
+    reversi.makeMove(0, 0);
+  }
+
+  @Test
+  public void testScoreSnapshot() {
+    this.init();
+    Assert.assertEquals(new ScoreSnapshot(3, 3, 13), reversi.getScores());
+    reversi.move(2, -1);
+    ScoreSnapshot scores = reversi.getScores();
+    Assert.assertEquals(5, scores.getScore(PlayColor.BLACK));
+    Assert.assertEquals(2, scores.getScore(PlayColor.WHITE));
+    Assert.assertEquals(12, scores.getEmpty());
+    Assert.assertEquals(12, reversi.getEmptyCount());
+    reversi.pass();
+    Assert.assertEquals(scores, reversi.getScores());
+  }
+
+  // test getPositionHash
+  @Test
+  public void testPositionHashFollowsPosition() {
+    this.init();
+    long start = reversi.getPositionHash();
+    Assert.assertEquals(start, mock.getPositionHash());
+    MoveDelta delta = reversi.makeMove(2, -1);
+    Assert.assertNotEquals(start, reversi.getPositionHash());
+    mock.move(2, -1);
+    Assert.assertEquals(mock.getPositionHash(), reversi.getPositionHash());
+    reversi.unmakeMove(delta);
+    Assert.assertEquals(start, reversi.getPositionHash());
+  }
+
+  @Test
+  public void testPositionHashCoversTurn() {
+    this.init();
+    long start = reversi.getPositionHash();
+    reversi.pass();
+    Assert.assertNotEquals(start, reversi.getPositionHash());
+    reversi.pass();
+    Assert.assertEquals(start, reversi.getPositionHash());
+    // every model hashes a position alike
+    Assert.assertEquals(start, new BasicReversi(3).getPositionHash());
+  }
+
+  // test snapshot
+  @Test
+  public void testSnapshotIsImmutable() {
+    this.init();
+    BoardSnapshot before = reversi.snapshot();
+    reversi.move(2, -1);
+    BoardSnapshot after = reversi.snapshot();
+    Assert.assertEquals(Cell.EMPTY, before.getCell(2, -1));
+    Assert.assertEquals(Cell.WHITE, before.getCell(1, -1));
+    Assert.assertEquals(PlayColor.BLACK, before.getColor());
+    Assert.assertEquals(Cell.BLACK, after.getCell(2, -1));
+    Assert.assertEquals(PlayColor.WHITE, after.getColor());
+    Assert.assertEquals(before.getVersion() + 1, after.getVersion());
+    Assert.assertEquals(reversi.getScores(), after.getScores());
+    Assert.assertEquals(reversi.getPositionHash(), after.getPositionHash());
+    Assert.assertEquals(reversi.getAllMoves(), after.getAllMoves());
+  }
+
+  @Test
+  public void testSnapshotIgnoresMakeMove() {
+    this.init();
+    BoardSnapshot before = reversi.snapshot();
+    MoveDelta delta = reversi.makeMove(2, -1);
+    Assert.assertSame(before, reversi.snapshot());
+    reversi.unmakeMove(delta);
+    reversi.pass();
+    reversi.pass();
+    Assert.assertTrue(reversi.snapshot().isGameOver());
+    Assert.assertEquals(2, reversi.snapshot().getPassed());
+  }
+
+  // test flipDirections and flipCount
+  @Test
+  public void testFlipDirectionsAndCount() {
+    this.init();
+    Assert.assertEquals(1 << HexGeometry.R_LEFT, reversi.flipDirections(2, -1, PlayColor.BLACK));
+    Assert.assertEquals(1, reversi.flipCount(2, -1, PlayColor.BLACK));
+    Assert.assertEquals(1 << HexGeometry.S_DOWN, reversi.flipDirections(2, -1, PlayColor.WHITE));
+    Assert.assertEquals(0, reversi.flipCount(0, 0, PlayColor.BLACK));
+    Assert.assertEquals(0, reversi.flipDirections(1, 0, PlayColor.WHITE));
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testFlipCountOffBoard() {
+    this.init();
+    reversi.flipCount(3, 0, PlayColor.BLACK);
+  }
+
+  // test getMobility and the cached game state
+  @Test
+  public void testMobilityAndCachedGameOver() {
+    this.init();
+    Assert.assertEquals(reversi.getAllMoves().size(), reversi.getMobility(PlayColor.BLACK));
+    Assert.assertEquals(6, reversi.getMobility(PlayColor.WHITE));
+    MoveDelta move = reversi.makeMove(2, -1);
+    Assert.assertEquals(reversi.getAllMoves().size(), reversi.getMobility(PlayColor.WHITE));
+    reversi.unmakeMove(move);
+    Assert.assertEquals(6, reversi.getMobility(PlayColor.BLACK));
+    MoveDelta pass = reversi.makePass();
+    MoveDelta secondPass = reversi.makePass();
+    Assert.assertTrue(reversi.isGameOver());
+    reversi.unmakeMove(secondPass);
+    reversi.unmakeMove(pass);
+    Assert.assertFalse(reversi.isGameOver());
+  }
+
+  // test the shared Coordinates of HexGeometry
+  @Test
+  public void testSharedCoordinates() {
+    this.init();
+    HexGeometry geometry = HexGeometry.of(3);
+    for (int index = 0; index < geometry.cellCount(); index++) {
+      Coordinate c = geometry.coordinateAt(index);
+      Assert.assertEquals(index, geometry.indexOf(c.getQ(), c.getR()));
+      Assert.assertSame(c, geometry.coordinateOf(c.getQ(), c.getR()));
+    }
+    Coordinate move = reversi.getAllMoves().get(0);
+    Assert.assertSame(geometry.coordinateOf(move.getQ(), move.getR()), move);
+    Assert.assertEquals(new Coordinate(1, -2).hashCode(), geometry.coordinateOf(1, -2).hashCode());
+    Assert.assertNotEquals(new Coordinate(1, 0).hashCode(), new Coordinate(0, 1).hashCode());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testSharedCoordinateOffBoard() {
+    HexGeometry.of(3).coordinateOf(3, 0);
+  }
+
+  // test PlayoutBoard against the model
+  @Test
+  public void testPlayoutBoard() {
+    this.init();
+    reversi.move(2, -1);
+    PlayoutBoard board = new PlayoutBoard(3);
+    board.copyFrom(reversi.snapshot());
+    int[] moves = new int[HexGeometry.of(3).cellCount()];
+    Assert.assertEquals(reversi.getAllMoves().size(), board.legalMoves(moves));
+    Assert.assertEquals(PlayColor.WHITE, board.getColor());
+    Assert.assertEquals(reversi.getScore(PlayColor.BLACK), board.getScore(PlayColor.BLACK));
+    int difference = board.playRandomGame(new SplittableRandom(1));
+    Assert.assertEquals(2, board.getPassed());
+    Assert.assertEquals(board.getScore(PlayColor.BLACK) - board.getScore(PlayColor.WHITE),
+            difference);
+    // the model is untouched by the playout
+    Assert.assertEquals(PlayColor.WHITE, reversi.getColor());
+  }
+
   // getScore is tested in other tests
   // test getCell
   @Test (expected = IllegalArgumentException.class)
@@ -268,33 +535,33 @@ public class BasicReversiTest {
     mock.move(2, -1);
     Assert.assertFalse(mock.isGameOver());
     Assert.assertEquals(3, mock.getBoardSize());
-    Assert.assertEquals(19, mock.boardTotal());
+    Assert.assertEquals(19, mock.getCopyBoard().size());
     mock.move(1, -2);
     Assert.assertFalse(mock.isGameOver());
     Assert.assertEquals(3, mock.getBoardSize());
-    Assert.assertEquals(19, mock.boardTotal());
+    Assert.assertEquals(19, mock.getCopyBoard().size());
     mock.move(-1, -1);
     Assert.assertFalse(mock.isGameOver());
     Assert.assertEquals(3, mock.getBoardSize());
-    Assert.assertEquals(19, mock.boardTotal());
+    Assert.assertEquals(19, mock.getCopyBoard().size());
     mock.move(1, 1);
     Assert.assertFalse(mock.isGameOver());
     Assert.assertEquals(3, mock.getBoardSize());
-    Assert.assertEquals(19, mock.boardTotal());
+    Assert.assertEquals(19, mock.getCopyBoard().size());
     mock.move(-1, 2);
     Assert.assertFalse(mock.isGameOver());
     Assert.assertEquals(3, mock.getBoardSize());
-    Assert.assertEquals(19, mock.boardTotal());
+    Assert.assertEquals(19, mock.getCopyBoard().size());
     mock.move(-2, 1);
     Assert.assertTrue(mock.isGameOver());
     Assert.assertEquals(3, mock.getBoardSize());
-    Assert.assertEquals(19, mock.boardTotal());
+    Assert.assertEquals(19, mock.getCopyBoard().size());
   }
 
   // example for explaining how the model works
   @Test
   public void exampleComprehensiveModel() {
-    ReversiModel model = new BasicReversi(3);
+    ReversiModel model = factory.apply(3);
     model.move(2, -1);
     Assert.assertEquals(5, model.getScore(PlayColor.BLACK));
     Assert.assertEquals(2, model.getScore(PlayColor.WHITE));
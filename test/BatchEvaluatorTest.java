@@ -0,0 +1,168 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import controller.BatchEvaluator;
+import controller.PatternWeights;
+import model.BasicReversi;
+import model.BoardSnapshot;
+import model.Coordinate;
+import model.PlayColor;
+import model.PlayoutBoard;
+
+/**
+ * The purpose of the BatchEvaluatorTest is to test scoring packed positions in batches.
+ */
+public class BatchEvaluatorTest {
+
+  @Test
+  public void testBatchMatchesSinglePositions() {
+    for (int size : new int[] {6, 8}) {
+      BatchEvaluator evaluator = new BatchEvaluator(PatternWeights.forBoardSize(size));
+      BoardSnapshot[] positions = positions(size, 300);
+      long[] boards = pack(evaluator, positions);
+      int[] values = new int[positions.length];
+      evaluator.evaluate(boards, positions.length, values);
+      for (int position = 0; position < positions.length; position++) {
+        Assert.assertEquals(evaluator.evaluate(boards, position * evaluator.getStride()),
+                values[position]);
+      }
+      // a batch too small to be turned around scores the same
+      int[] few = new int[5];
+      evaluator.evaluate(boards, few.length, few);
+      for (int position = 0; position < few.length; position++) {
+        Assert.assertEquals(values[position], few[position]);
+      }
+    }
+  }
+
+  @Test
+  public void testBatchMatchesPatternEvaluation() {
+    // the batch scores every position as the pattern evaluation of the search does
+    for (int size : new int[] {6, 8}) {
+      PatternWeights weights = PatternWeights.forBoardSize(size);
+      BatchEvaluator evaluator = new BatchEvaluator(weights);
+      BoardSnapshot[] positions = positions(size, 200);
+      long[] boards = pack(evaluator, positions);
+      int[] values = new int[positions.length];
+      evaluator.evaluate(boards, positions.length, values);
+      for (int position = 0; position < positions.length; position++) {
+        Assert.assertEquals(weights.evaluate(new BasicReversi(positions[position])),
+                values[position]);
+      }
+    }
+  }
+
+  @Test
+  public void testMobilityOnly() throws IOException {
+    // with every pattern weight zero, the worth is the mobility difference
+    BatchEvaluator evaluator = new BatchEvaluator(mobilityOnly(6));
+    BoardSnapshot[] positions = positions(6, 200);
+    long[] boards = pack(evaluator, positions);
+    int[] values = new int[positions.length];
+    evaluator.evaluate(boards, positions.length, values);
+    for (int position = 0; position < positions.length; position++) {
+      BasicReversi model = new BasicReversi(positions[position]);
+      int mobility = model.getMobility(PlayColor.BLACK) - model.getMobility(PlayColor.WHITE);
+      Assert.assertEquals(mobility, values[position]);
+      Assert.assertEquals(mobility, evaluator.evaluate(boards, position * evaluator.getStride()));
+    }
+  }
+
+  @Test
+  public void testPlayoutBoardPacksLikeSnapshot() {
+    BoardSnapshot position = positions(7, 1)[0];
+    PlayoutBoard board = new PlayoutBoard(7);
+    board.copyFrom(position);
+    long[] fromSnapshot = new long[6];
+    long[] fromBoard = new long[6];
+    position.packDiscs(fromSnapshot, 1);
+    board.packDiscs(fromBoard, 1);
+    Assert.assertArrayEquals(fromSnapshot, fromBoard);
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testBoardsTooShort() {
+    BatchEvaluator evaluator = new BatchEvaluator(PatternWeights.forBoardSize(6));
+    evaluator.evaluate(new long[3 * evaluator.getStride() - 1], 3, new int[3]);
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testValuesTooShort() {
+    BatchEvaluator evaluator = new BatchEvaluator(PatternWeights.forBoardSize(6));
+    evaluator.evaluate(new long[20 * evaluator.getStride()], 20, new int[19]);
+  }
+
+  /**
+   * Returns the given number of positions of random games on boards of the given size, from
+   * every stage of the game.
+   */
+  private static BoardSnapshot[] positions(int size, int count) {
+    Random random = new Random(size);
+    BoardSnapshot[] positions = new BoardSnapshot[count];
+    BasicReversi model = new BasicReversi(size);
+    for (int position = 0; position < count; position++) {
+      if (model.isGameOver()) {
+        model = new BasicReversi(size);
+      }
+      positions[position] = model.snapshot();
+      List<Coordinate> moves = model.getAllMoves();
+      if (moves.isEmpty()) {
+        model.pass();
+      } else {
+        Coordinate move = moves.get(random.nextInt(moves.size()));
+        model.move(move.getQ(), move.getR());
+      }
+    }
+    return positions;
+  }
+
+  private static long[] pack(BatchEvaluator evaluator, BoardSnapshot[] positions) {
+    long[] boards = new long[positions.length * evaluator.getStride()];
+    for (int position = 0; position < positions.length; position++) {
+      positions[position].packDiscs(boards, position * evaluator.getStride());
+    }
+    return boards;
+  }
+
+  /**
+   * Returns weights for boards of the given size with a mobility weight of one at every stage
+   * and every pattern weight zero, by rewriting the bundled weights.
+   */
+  private static PatternWeights mobilityOnly(int size) throws IOException {
+    ByteArrayOutputStream bundled = new ByteArrayOutputStream();
+    PatternWeights.forBoardSize(size).write(bundled);
+    DataInputStream in = new DataInputStream(new GZIPInputStream(
+            new ByteArrayInputStream(bundled.toByteArray())));
+    ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+    GZIPOutputStream zipped = new GZIPOutputStream(rewritten);
+    DataOutputStream out = new DataOutputStream(zipped);
+    for (int header = 0; header < 4; header++) {
+      out.writeInt(in.readInt());
+    }
+    for (int stage = 0; stage < PatternWeights.STAGES; stage++) {
+      in.readShort();
+      out.writeShort(1);
+      for (int pattern = 0; pattern < 3; pattern++) {
+        int length = in.readInt();
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+          in.readShort();
+          out.writeShort(0);
+        }
+      }
+    }
+    out.flush();
+    zipped.finish();
+    return PatternWeights.read(new ByteArrayInputStream(rewritten.toByteArray()));
+  }
+}
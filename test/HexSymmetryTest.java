@@ -0,0 +1,162 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import model.BasicReversi;
+import model.Cell;
+import model.Coordinate;
+import model.HexGeometry;
+import model.HexSymmetry;
+
+/**
+ * The purpose of the HexSymmetryTest is to test the symmetries of the board and the canonical
+ * form of positions.
+ */
+public class HexSymmetryTest {
+
+  @Test
+  public void testTransformsArePermutations() {
+    for (int size = 3; size <= 8; size++) {
+      HexGeometry geometry = HexGeometry.of(size);
+      HexSymmetry symmetry = HexSymmetry.of(size);
+      Set<String> maps = new HashSet<>();
+      for (int t = 0; t < HexSymmetry.TRANSFORMS; t++) {
+        boolean[] hit = new boolean[geometry.cellCount()];
+        StringBuilder map = new StringBuilder();
+        for (int cell = 0; cell < geometry.cellCount(); cell++) {
+          int image = symmetry.apply(t, cell);
+          Assert.assertFalse(hit[image]);
+          hit[image] = true;
+          Assert.assertEquals(cell, symmetry.apply(HexSymmetry.inverse(t), image));
+          map.append(image).append(',');
+        }
+        maps.add(map.toString());
+      }
+      // the twelve transforms are all different
+      Assert.assertEquals(HexSymmetry.TRANSFORMS, maps.size());
+      for (int cell = 0; cell < geometry.cellCount(); cell++) {
+        Assert.assertEquals(cell, symmetry.apply(0, cell));
+      }
+    }
+  }
+
+  @Test
+  public void testTransformsKeepNeighbors() {
+    HexGeometry geometry = HexGeometry.of(5);
+    HexSymmetry symmetry = HexSymmetry.of(5);
+    for (int t = 0; t < HexSymmetry.TRANSFORMS; t++) {
+      for (int cell = 0; cell < geometry.cellCount(); cell++) {
+        for (int d = 0; d < HexGeometry.DIRECTIONS; d++) {
+          if (geometry.rayLength(cell, d) > 0) {
+            int neighbor = geometry.rayCell(cell, d, 0);
+            Assert.assertEquals(1, distance(geometry, symmetry.apply(t, cell),
+                    symmetry.apply(t, neighbor)));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testIdentityHashIsPositionHash() {
+    BasicReversi model = new BasicReversi(6);
+    HexSymmetry symmetry = HexSymmetry.of(6);
+    Random random = new Random(2);
+    while (!model.isGameOver()) {
+      HexSymmetry.Canonical canonical = symmetry.canonicalize(model.snapshot());
+      if (canonical.getTransform() == 0) {
+        Assert.assertEquals(model.getPositionHash(), canonical.getHash());
+      }
+      play(model, random);
+    }
+  }
+
+  @Test
+  public void testSymmetricPositionsShareTheirForm() {
+    Random random = new Random(4);
+    for (int size = 4; size <= 7; size++) {
+      HexGeometry geometry = HexGeometry.of(size);
+      HexSymmetry symmetry = HexSymmetry.of(size);
+      BasicReversi start = new BasicReversi(size);
+      for (int t = 0; t < HexSymmetry.TRANSFORMS; t++) {
+        if (!isSymmetric(start, geometry, symmetry, t)) {
+          continue;
+        }
+        // a game and the same game transformed reach positions of the same canonical form
+        BasicReversi model = new BasicReversi(size);
+        BasicReversi image = new BasicReversi(size);
+        while (!model.isGameOver()) {
+          HexSymmetry.Canonical canonical = symmetry.canonicalize(model.snapshot());
+          HexSymmetry.Canonical imageCanonical = symmetry.canonicalize(image.snapshot());
+          Assert.assertEquals(canonical.getHash(), imageCanonical.getHash());
+          List<Coordinate> moves = model.getAllMoves();
+          if (moves.isEmpty()) {
+            model.pass();
+            image.pass();
+            continue;
+          }
+          Coordinate move = moves.get(random.nextInt(moves.size()));
+          Coordinate imageMove = symmetry.apply(t, move);
+          Assert.assertEquals(move, canonical.fromCanonical(canonical.toCanonical(move)));
+          Assert.assertEquals(imageMove,
+                  imageCanonical.fromCanonical(imageCanonical.toCanonical(imageMove)));
+          model.move(move.getQ(), move.getR());
+          image.move(imageMove.getQ(), imageMove.getR());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSymmetricMovesShareTheirCanonicalMove() {
+    for (int size : new int[] {3, 4, 7}) {
+      BasicReversi model = new BasicReversi(size);
+      HexSymmetry.Canonical canonical = HexSymmetry.of(size).canonicalize(model.snapshot());
+      // the starting position is symmetric enough that every first move is the same move
+      Set<Coordinate> moves = new HashSet<>();
+      for (Coordinate move : model.getAllMoves()) {
+        moves.add(canonical.canonicalMove(move));
+      }
+      Assert.assertEquals(1, moves.size());
+      Coordinate back = canonical.fromCanonical(moves.iterator().next());
+      Assert.assertTrue(model.validMoveLogic(back.getQ(), back.getR(), model.getColor()));
+    }
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testCanonicalizeOtherBoardSize() {
+    HexSymmetry.of(5).canonicalize(new BasicReversi(6).snapshot());
+  }
+
+  private static boolean isSymmetric(BasicReversi model, HexGeometry geometry,
+                                     HexSymmetry symmetry, int transform) {
+    for (int cell = 0; cell < geometry.cellCount(); cell++) {
+      int image = symmetry.apply(transform, cell);
+      Cell original = model.getCell(geometry.qOf(cell), geometry.rOf(cell));
+      if (original != model.getCell(geometry.qOf(image), geometry.rOf(image))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int distance(HexGeometry geometry, int a, int b) {
+    int dq = geometry.qOf(a) - geometry.qOf(b);
+    int dr = geometry.rOf(a) - geometry.rOf(b);
+    return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+  }
+
+  private static void play(BasicReversi model, Random random) {
+    List<Coordinate> moves = model.getAllMoves();
+    if (moves.isEmpty()) {
+      model.pass();
+    } else {
+      Coordinate move = moves.get(random.nextInt(moves.size()));
+      model.move(move.getQ(), move.getR());
+    }
+  }
+}
@@ -0,0 +1,39 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.BasicReversi;
+import model.Coordinate;
+import model.MoveEngine;
+import model.ReversiStatus;
+
+/**
+ * The purpose of MoveEngineTest is to test the choice of MoveEngine of BasicReversi. The rules
+ * themselves are tested against every engine by BasicReversiTest.
+ */
+public class MoveEngineTest {
+
+  @Test
+  public void testDefaultEngine() {
+    Assert.assertEquals(MoveEngine.LINE_TABLE, new BasicReversi(6).getEngine());
+    Assert.assertEquals(MoveEngine.RAY_WALK, new BasicReversi(9).getEngine());
+  }
+
+  @Test
+  public void testMoveEnginesAgree() {
+    BasicReversi walk = new BasicReversi(6, new ReversiStatus(), MoveEngine.RAY_WALK);
+    BasicReversi table = new BasicReversi(6, new ReversiStatus(), MoveEngine.LINE_TABLE);
+    for (int turn = 0; turn < 10; turn++) {
+      Assert.assertEquals(walk.getAllMoves(), table.getAllMoves());
+      Coordinate move = walk.getAllMoves().get(0);
+      walk.move(move.getQ(), move.getR());
+      table.move(move.getQ(), move.getR());
+      Assert.assertEquals(walk.returnBoard(), table.returnBoard());
+      Assert.assertEquals(walk.getPositionHash(), table.getPositionHash());
+    }
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testLineTableTooLarge() {
+    new BasicReversi(9, new ReversiStatus(), MoveEngine.LINE_TABLE);
+  }
+}
@@ -0,0 +1,215 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import controller.AlphaBetaStrategy;
+import controller.BookStrategy;
+import controller.OpeningBook;
+import controller.OpeningBookBuilder;
+import model.BasicReversi;
+import model.Coordinate;
+import model.HexGeometry;
+import model.HexSymmetry;
+import model.PlayColor;
+
+/**
+ * The purpose of the OpeningBookTest is to test building, opening and playing from an
+ * OpeningBook.
+ */
+public class OpeningBookTest {
+
+  @Test
+  public void testBuildAndLookup() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      OpeningBookBuilder builder = new OpeningBookBuilder(4, 3);
+      Random random = new Random(3);
+      for (int game = 0; game < 50; game++) {
+        builder.addGame(randomGame(4, random));
+      }
+      Assert.assertEquals(50, builder.getGames());
+      int entries = builder.write(file, 1);
+      OpeningBook book = OpeningBook.open(file);
+      Assert.assertEquals(4, book.getBoardSize());
+      Assert.assertEquals(entries, book.size());
+      BasicReversi model = new BasicReversi(4);
+      List<OpeningBook.Move> moves = book.lookup(model.snapshot());
+      Assert.assertFalse(moves.isEmpty());
+      int games = 0;
+      for (OpeningBook.Move move : moves) {
+        Assert.assertTrue(model.validMoveLogic(move.getMove().getQ(), move.getMove().getR(),
+                PlayColor.BLACK));
+        Assert.assertTrue(move.getScore() >= 0 && move.getScore() <= 1);
+        games += move.getGames();
+      }
+      Assert.assertEquals(50, games);
+      // the book only holds the first three plies
+      List<Coordinate> game = randomGame(4, random);
+      for (int ply = 0; ply < 4; ply++) {
+        Coordinate move = game.get(ply);
+        if (move == null) {
+          model.pass();
+        } else {
+          model.move(move.getQ(), move.getR());
+        }
+      }
+      Assert.assertTrue(book.lookup(model.snapshot()).isEmpty());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testBookStrategy() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      OpeningBookBuilder builder = new OpeningBookBuilder(4, 1);
+      List<Coordinate> game = randomGame(4, new Random(5));
+      builder.addGame(game);
+      builder.addGame(game);
+      builder.write(file, 2);
+      BookStrategy strategy = new BookStrategy(OpeningBook.open(file),
+              new AlphaBetaStrategy(50, 2), 2);
+      BasicReversi model = new BasicReversi(4);
+      // the book plays the first move of the game, or one of its symmetries
+      Coordinate booked = strategy.decideMove(model);
+      Assert.assertTrue(strategy.isLastFromBook());
+      HexSymmetry symmetry = HexSymmetry.of(4);
+      BasicReversi played = new BasicReversi(4);
+      played.move(booked.getQ(), booked.getR());
+      BasicReversi expected = new BasicReversi(4);
+      expected.move(game.get(0).getQ(), game.get(0).getR());
+      Assert.assertEquals(symmetry.canonicalize(expected.snapshot()).getHash(),
+              symmetry.canonicalize(played.snapshot()).getHash());
+      model.move(game.get(0).getQ(), game.get(0).getR());
+      // only the first ply is in the book
+      Coordinate move = strategy.decideMove(model);
+      Assert.assertFalse(strategy.isLastFromBook());
+      Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.WHITE));
+      // a book for another board size is never used
+      Assert.assertNotNull(strategy.decideMove(new BasicReversi(5)));
+      Assert.assertFalse(strategy.isLastFromBook());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testMinGamesLeavesOutRareMoves() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      OpeningBookBuilder builder = new OpeningBookBuilder(4, 2);
+      builder.addGame(randomGame(4, new Random(7)));
+      Assert.assertEquals(0, builder.write(file, 2));
+      Assert.assertEquals(0, OpeningBook.open(file).size());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testLookupFindsSymmetricPositions() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      OpeningBookBuilder builder = new OpeningBookBuilder(5, 2);
+      List<Coordinate> game = randomGame(5, new Random(11));
+      builder.addGame(game);
+      builder.write(file, 1);
+      OpeningBook book = OpeningBook.open(file);
+      HexSymmetry symmetry = HexSymmetry.of(5);
+      for (int t = 0; t < HexSymmetry.TRANSFORMS; t++) {
+        // the first two moves of the game turned by the transform
+        BasicReversi model = new BasicReversi(5);
+        if (!isSymmetric(model, symmetry, t)) {
+          continue; // the game would not start from the same position
+        }
+        Coordinate first = symmetry.apply(t, game.get(0));
+        model.move(first.getQ(), first.getR());
+        List<OpeningBook.Move> moves = book.lookup(model.snapshot());
+        Assert.assertEquals(1, moves.size());
+        // the book move leads to the position the turned second move does, up to a symmetry
+        BasicReversi booked = new BasicReversi(model.snapshot());
+        Coordinate second = symmetry.apply(t, game.get(1));
+        model.move(second.getQ(), second.getR());
+        booked.move(moves.get(0).getMove().getQ(), moves.get(0).getMove().getR());
+        Assert.assertEquals(symmetry.canonicalize(model.snapshot()).getHash(),
+                symmetry.canonicalize(booked.snapshot()).getHash());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testSymmetricMovesShareAnEntry() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      OpeningBookBuilder builder = new OpeningBookBuilder(4, 1);
+      Random random = new Random(13);
+      for (int game = 0; game < 30; game++) {
+        builder.addGame(randomGame(4, random));
+      }
+      // every first move is a symmetry of every other one
+      Assert.assertEquals(1, builder.write(file, 1));
+      List<OpeningBook.Move> moves = OpeningBook.open(file).lookup(new BasicReversi(4).snapshot());
+      Assert.assertEquals(1, moves.size());
+      Assert.assertEquals(30, moves.get(0).getGames());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test (expected = IOException.class)
+  public void testOpenRejectsOtherFiles() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    try {
+      Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+      OpeningBook.open(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testUnfinishedGame() {
+    BasicReversi model = new BasicReversi(4);
+    List<Coordinate> moves = new ArrayList<>();
+    moves.add(model.getAllMoves().get(0));
+    new OpeningBookBuilder(4, 5).addGame(moves);
+  }
+
+  private static boolean isSymmetric(BasicReversi model, HexSymmetry symmetry, int transform) {
+    HexGeometry geometry = HexGeometry.of(model.getBoardSize());
+    for (int cell = 0; cell < geometry.cellCount(); cell++) {
+      Coordinate image = geometry.coordinateAt(symmetry.apply(transform, cell));
+      if (model.getCell(geometry.qOf(cell), geometry.rOf(cell))
+              != model.getCell(image.getQ(), image.getR())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static List<Coordinate> randomGame(int size, Random random) {
+    BasicReversi model = new BasicReversi(size);
+    List<Coordinate> moves = new ArrayList<>();
+    while (!model.isGameOver()) {
+      List<Coordinate> legal = model.getAllMoves();
+      if (legal.isEmpty()) {
+        model.pass();
+        moves.add(null);
+      } else {
+        Coordinate move = legal.get(random.nextInt(legal.size()));
+        model.move(move.getQ(), move.getR());
+        moves.add(move);
+      }
+    }
+    return moves;
+  }
+}
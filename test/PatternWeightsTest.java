@@ -0,0 +1,71 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import controller.AlphaBetaStrategy;
+import controller.PatternWeights;
+import model.BasicReversi;
+import model.Coordinate;
+import model.PlayColor;
+
+/**
+ * The purpose of the PatternWeightsTest is to test the PatternWeights of the pattern evaluation
+ * and the AlphaBetaStrategy searching with them.
+ */
+public class PatternWeightsTest {
+
+  @Test
+  public void testBundledWeights() {
+    Assert.assertEquals(6, PatternWeights.forBoardSize(6).getBoardSize());
+    Assert.assertEquals(8, PatternWeights.forBoardSize(8).getBoardSize());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testNoBundledWeights() {
+    PatternWeights.forBoardSize(5);
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    PatternWeights weights = PatternWeights.forBoardSize(6);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    weights.write(out);
+    byte[] written = out.toByteArray();
+    PatternWeights read = PatternWeights.read(new ByteArrayInputStream(written));
+    Assert.assertEquals(6, read.getBoardSize());
+    ByteArrayOutputStream again = new ByteArrayOutputStream();
+    read.write(again);
+    Assert.assertArrayEquals(written, again.toByteArray());
+  }
+
+  @Test (expected = IOException.class)
+  public void testReadRejectsOtherData() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new GZIPOutputStream(out).close();
+    PatternWeights.read(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  @Test
+  public void testSearchWithPatterns() {
+    BasicReversi model = new BasicReversi(6);
+    model.move(-2, 1);
+    long hash = model.getPositionHash();
+    AlphaBetaStrategy search = AlphaBetaStrategy.builder(10_000).maxDepth(4)
+            .weights(PatternWeights.forBoardSize(6)).build();
+    Coordinate move = search.decideMove(model);
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.WHITE));
+    Assert.assertEquals(4, search.getLastDepth());
+    Assert.assertEquals(hash, model.getPositionHash());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testSearchNeedsWeightsOfTheBoardSize() {
+    AlphaBetaStrategy search = AlphaBetaStrategy.builder(100).maxDepth(4)
+            .weights(PatternWeights.forBoardSize(6)).build();
+    search.decideMove(new BasicReversi(8));
+  }
+}
@@ -1,10 +1,29 @@
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
 import controller.AdvoidCorners;
+import controller.AlphaBetaStrategy;
 import controller.CaptureMostPieces;
+import controller.EndgameSolver;
+import controller.MctsStrategy;
+import controller.MoveOrdering;
+import controller.ProbCut;
+import controller.ReversiStrategies;
+import controller.SearchWindow;
+import controller.TranspositionTable;
+import model.AIPlayer;
 import model.BasicReversi;
 import model.Coordinate;
+import model.MoveDelta;
+import model.PlayColor;
+import model.ReversiModel;
 
 /**
  * The purpose of the StrategyTests is to test the Strategy Function Objects.
@@ -41,4 +60,405 @@ public class StrategyTests {
     AdvoidCorners opt = new AdvoidCorners(model);
     Assert.assertEquals(optimal, opt.decideMove(model));
   }
+
+  @Test
+  public void testAlphaBetaLeavesModelUntouched() {
+    BasicReversi model = new BasicReversi(4);
+    model.move(-2, 1);
+    long hash = model.getPositionHash();
+    long version = model.snapshot().getVersion();
+    AlphaBetaStrategy search = new AlphaBetaStrategy(200, 4);
+    Coordinate move = search.decideMove(model);
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), model.getColor()));
+    Assert.assertEquals(4, search.getLastDepth());
+    Assert.assertEquals(hash, model.getPositionHash());
+    Assert.assertEquals(version, model.snapshot().getVersion());
+    Assert.assertEquals(PlayColor.WHITE, model.getColor());
+  }
+
+  @Test
+  public void testAlphaBetaThroughAIPlayer() {
+    BasicReversi model = new BasicReversi(3);
+    AIPlayer black = new AIPlayer(new AlphaBetaStrategy(50));
+    AIPlayer white = new AIPlayer(new AlphaBetaStrategy(50));
+    black.setColor(PlayColor.BLACK);
+    white.setColor(PlayColor.WHITE);
+    while (!model.isGameOver()) {
+      AIPlayer player = model.getColor() == PlayColor.BLACK ? black : white;
+      Optional<Coordinate> move = player.chooseNextMove(model);
+      if (move.isPresent()) {
+        model.move(move.get().getQ(), move.get().getR());
+      } else {
+        model.pass();
+      }
+    }
+    Assert.assertTrue(model.snapshot().isGameOver());
+  }
+
+  @Test
+  public void testAlphaBetaSolvesSmallBoard() {
+    BasicReversi model = new BasicReversi(3);
+    AlphaBetaStrategy search = new AlphaBetaStrategy(5000);
+    Assert.assertNotNull(search.decideMove(model));
+    // the whole game fits in the budget, so the search stops once every line reaches the end
+    Assert.assertTrue(search.getLastDepth() <= model.getEmptyCount() + 2);
+  }
+
+  @Test
+  public void testAlphaBetaWithTranspositionTable() {
+    BasicReversi model = new BasicReversi(4);
+    TranspositionTable table = new TranspositionTable(1);
+    AlphaBetaStrategy search = AlphaBetaStrategy.builder(200).maxDepth(5).table(table).build();
+    Coordinate move = search.decideMove(model);
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.BLACK));
+    Assert.assertEquals(5, search.getLastDepth());
+    Assert.assertTrue(table.getStores() > 0);
+    Assert.assertTrue(table.getHits() > 0);
+  }
+
+  @Test
+  public void testParallelAlphaBeta() {
+    BasicReversi model = new BasicReversi(5);
+    long hash = model.getPositionHash();
+    AlphaBetaStrategy search = AlphaBetaStrategy.builder(200).maxDepth(5)
+            .table(new TranspositionTable(1)).threads(3).build();
+    Coordinate move = search.decideMove(model);
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.BLACK));
+    Assert.assertTrue(search.getLastDepth() >= 5);
+    Assert.assertTrue(search.getLastNodes() > 0);
+    Assert.assertEquals(hash, model.getPositionHash());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testParallelAlphaBetaNeedsTable() {
+    AlphaBetaStrategy.builder(100).maxDepth(5).threads(2).build();
+  }
+
+  @Test
+  public void testMoveOrderingSavesNodes() {
+    BasicReversi model = new BasicReversi(5);
+    model.move(-2, 1);
+    AlphaBetaStrategy plain = AlphaBetaStrategy.builder(10_000).maxDepth(6)
+            .ordering(MoveOrdering.PLAIN).build();
+    AlphaBetaStrategy ordered = AlphaBetaStrategy.builder(10_000).maxDepth(6)
+            .ordering(MoveOrdering.MOBILITY).build();
+    Assert.assertNotNull(plain.decideMove(model));
+    Assert.assertNotNull(ordered.decideMove(model));
+    Assert.assertEquals(6, ordered.getLastDepth());
+    Assert.assertTrue(ordered.getLastNodes() < plain.getLastNodes());
+    Assert.assertTrue(ordered.getLastCutoffs() > 0);
+    Assert.assertTrue(ordered.getLastFirstMoveCutoffRate() > 0);
+    Assert.assertTrue(ordered.getLastFirstMoveCutoffRate() <= 1);
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testMoveOrderingNotNull() {
+    AlphaBetaStrategy.builder(100).maxDepth(5).ordering(null);
+  }
+
+  @Test
+  public void testPrincipalVariation() {
+    BasicReversi model = new BasicReversi(5);
+    model.move(-2, 1);
+    AlphaBetaStrategy search = AlphaBetaStrategy.builder(10_000).maxDepth(6)
+            .table(new TranspositionTable(1)).build();
+    Coordinate move = search.decideMove(model);
+    List<Coordinate> line = search.getLastPrincipalVariation();
+    Assert.assertFalse(line.isEmpty());
+    Assert.assertTrue(line.size() <= 6);
+    Assert.assertEquals(move, line.get(0));
+    BasicReversi replay = new BasicReversi(model.snapshot());
+    for (Coordinate step : line) {
+      if (step == null) {
+        replay.pass();
+      } else {
+        Assert.assertTrue(replay.validMoveLogic(step.getQ(), step.getR(), replay.getColor()));
+        replay.move(step.getQ(), step.getR());
+      }
+    }
+  }
+
+  @Test
+  public void testSearchWindowsSaveNodes() {
+    Random random = new Random(6);
+    long[] nodes = new long[SearchWindow.values().length];
+    for (int position = 0; position < 4; position++) {
+      BasicReversi model = new BasicReversi(6);
+      for (int move = 0; move < 6 + 4 * position; move++) {
+        List<Coordinate> legal = model.getAllMoves();
+        Coordinate chosen = legal.get(random.nextInt(legal.size()));
+        model.move(chosen.getQ(), chosen.getR());
+      }
+      for (SearchWindow window : SearchWindow.values()) {
+        AlphaBetaStrategy search = AlphaBetaStrategy.builder(60_000).maxDepth(8)
+                .table(new TranspositionTable(4)).window(window).build();
+        Assert.assertNotNull(search.decideMove(model));
+        nodes[window.ordinal()] += search.getLastNodes();
+        if (window != SearchWindow.ASPIRATION) {
+          Assert.assertEquals(0, search.getLastResearches());
+        }
+      }
+    }
+    Assert.assertTrue(nodes[SearchWindow.PRINCIPAL_VARIATION.ordinal()]
+            < nodes[SearchWindow.FULL.ordinal()]);
+    Assert.assertTrue(nodes[SearchWindow.ASPIRATION.ordinal()]
+            < nodes[SearchWindow.FULL.ordinal()]);
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testSearchWindowNotNull() {
+    AlphaBetaStrategy.builder(100).maxDepth(5).window(null);
+  }
+
+  @Test
+  public void testProbCutPrunes() {
+    BasicReversi model = new BasicReversi(6);
+    Random random = new Random(9);
+    for (int move = 0; move < 8; move++) {
+      List<Coordinate> legal = model.getAllMoves();
+      Coordinate chosen = legal.get(random.nextInt(legal.size()));
+      model.move(chosen.getQ(), chosen.getR());
+    }
+    long hash = model.getPositionHash();
+    AlphaBetaStrategy plain = AlphaBetaStrategy.builder(60_000).maxDepth(8)
+            .table(new TranspositionTable(4)).build();
+    AlphaBetaStrategy selective = plain.withProbCut(1.0);
+    Assert.assertNotNull(plain.decideMove(model));
+    Assert.assertEquals(0, plain.getLastProbCuts());
+    Coordinate move = selective.decideMove(model);
+    Assert.assertTrue(selective.getLastProbCuts() > 0);
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), model.getColor()));
+    Assert.assertEquals(hash, model.getPositionHash());
+  }
+
+  @Test
+  public void testProbCutWithoutCalibration() {
+    // no calibration is bundled for boards of size 5, so nothing is cut there
+    AlphaBetaStrategy selective = new AlphaBetaStrategy(60_000, 6).withProbCut(0.5);
+    Assert.assertNotNull(selective.decideMove(new BasicReversi(5)));
+    Assert.assertEquals(0, selective.getLastProbCuts());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testProbCutConfidenceNotNegative() {
+    new AlphaBetaStrategy(100).withProbCut(-1);
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testProbCutConfidenceNotNaN() {
+    new AIPlayer(new CaptureMostPieces(new BasicReversi(4)), Double.NaN);
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testProbCutCalibrationMissing() {
+    ProbCut.forEvaluation(5, false);
+  }
+
+  @Test
+  public void testProbCutCalibrationRoundTrip() throws IOException {
+    ProbCut bundled = ProbCut.forEvaluation(6, false);
+    Assert.assertEquals(6, bundled.getBoardSize());
+    Assert.assertFalse(bundled.isForPatterns());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    bundled.write(out);
+    ByteArrayOutputStream again = new ByteArrayOutputStream();
+    ProbCut.read(new ByteArrayInputStream(out.toByteArray())).write(again);
+    Assert.assertEquals(out.toString("UTF-8"), again.toString("UTF-8"));
+  }
+
+  @Test (expected = IOException.class)
+  public void testProbCutCalibrationMalformed() throws IOException {
+    ProbCut.read(new ByteArrayInputStream("size 6\n4 2 1.0 0.0\n".getBytes("UTF-8")));
+  }
+
+  @Test
+  public void testAIPlayerWithProbCut() {
+    BasicReversi model = new BasicReversi(6);
+    AIPlayer player = new AIPlayer(new AlphaBetaStrategy(50, 6), 1.5);
+    Coordinate move = player.chooseNextMove(model).get();
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.BLACK));
+  }
+
+  @Test
+  public void testPonderHit() throws InterruptedException {
+    BasicReversi model = new BasicReversi(5);
+    // without a table the guess is the move a search four plies deep picks
+    Coordinate guess = new AlphaBetaStrategy(10_000, 4).decideMove(model);
+    AlphaBetaStrategy white = new AlphaBetaStrategy(100, 8);
+    white.ponder(model);
+    // leave the pondering time to guess the reply and start searching the position after it
+    Thread.sleep(300);
+    model.move(guess.getQ(), guess.getR());
+    long hash = model.getPositionHash();
+    Coordinate move = white.decideMove(model);
+    Assert.assertTrue(white.isLastPonderHit());
+    Assert.assertTrue(white.getLastDepth() > 0);
+    // the move played is the one the pondered search found
+    Assert.assertEquals(move, white.getLastPrincipalVariation().get(0));
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.WHITE));
+    Assert.assertEquals(hash, model.getPositionHash());
+  }
+
+  @Test
+  public void testPonderMiss() {
+    BasicReversi model = new BasicReversi(5);
+    Coordinate guess = new AlphaBetaStrategy(10_000, 4).decideMove(model);
+    AlphaBetaStrategy white = AlphaBetaStrategy.builder(100).maxDepth(8)
+            .table(new TranspositionTable(1)).build();
+    white.ponder(model);
+    for (Coordinate reply : model.getAllMoves()) {
+      if (!reply.equals(guess)) {
+        model.move(reply.getQ(), reply.getR());
+        break;
+      }
+    }
+    long hash = model.getPositionHash();
+    Coordinate move = white.decideMove(model);
+    Assert.assertFalse(white.isLastPonderHit());
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.WHITE));
+    Assert.assertEquals(hash, model.getPositionHash());
+    white.ponder(model);
+    white.stopPondering();
+    Assert.assertEquals(hash, model.getPositionHash());
+  }
+
+  @Test
+  public void testMctsRespectsPlayoutLimit() {
+    BasicReversi model = new BasicReversi(4);
+    long hash = model.getPositionHash();
+    MctsStrategy search = new MctsStrategy(10_000, 500, 1);
+    Coordinate move = search.decideMove(model);
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.BLACK));
+    Assert.assertEquals(500, search.getLastPlayouts());
+    Assert.assertEquals(hash, model.getPositionHash());
+    // the trees are reused for the next move
+    model.move(move.getQ(), move.getR());
+    Coordinate reply = search.decideMove(model);
+    Assert.assertTrue(model.validMoveLogic(reply.getQ(), reply.getR(), PlayColor.WHITE));
+  }
+
+  @Test
+  public void testRootParallelMcts() {
+    BasicReversi model = new BasicReversi(5);
+    MctsStrategy search = new MctsStrategy(10_000, 600, 3, 4096);
+    Coordinate move = search.decideMove(model);
+    Assert.assertTrue(model.validMoveLogic(move.getQ(), move.getR(), PlayColor.BLACK));
+    Assert.assertEquals(600, search.getLastPlayouts());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testMctsNeedsPlayouts() {
+    new MctsStrategy(100, 0, 1);
+  }
+
+  @Test
+  public void testEndgameSolverIsExact() {
+    BasicReversi model = endgame(4, 14);
+    long hash = model.getPositionHash();
+    EndgameSolver solver = new EndgameSolver(10_000);
+    Coordinate move = solver.decideMove(model);
+    Assert.assertTrue(solver.isLastSolved());
+    Assert.assertEquals(hash, model.getPositionHash());
+    int best = perfectPlay(model);
+    Assert.assertEquals(best, solver.getLastScore());
+    // the chosen move keeps the best result
+    model.move(move.getQ(), move.getR());
+    Assert.assertEquals(best, -perfectPlay(model));
+  }
+
+  @Test
+  public void testEndgameSolverOutcomeOnly() {
+    BasicReversi model = endgame(4, 14);
+    EndgameSolver solver = new EndgameSolver(10_000, true);
+    Assert.assertNotNull(solver.decideMove(model));
+    Assert.assertTrue(solver.isLastSolved());
+    Assert.assertEquals(Integer.signum(perfectPlay(model)), solver.getLastScore());
+  }
+
+  @Test
+  public void testAIPlayerSwitchesToEndgameStrategy() {
+    Coordinate marker = new Coordinate(0, 0);
+    AIPlayer player = new AIPlayer(new CaptureMostPieces(new BasicReversi(4)),
+            model -> marker, 14);
+    Assert.assertNotEquals(marker, player.chooseNextMove(new BasicReversi(4)).get());
+    Assert.assertEquals(marker, player.chooseNextMove(endgame(4, 14)).get());
+  }
+
+  @Test
+  public void testAIPlayerWithProbCutAndEndgame() {
+    Coordinate selective = new Coordinate(1, -2);
+    Coordinate marker = new Coordinate(0, 0);
+    ReversiStrategies midgame = new ReversiStrategies() {
+      @Override
+      public Coordinate decideMove(ReversiModel model) {
+        return null;
+      }
+
+      @Override
+      public ReversiStrategies withProbCut(double confidence) {
+        return model -> selective;
+      }
+    };
+    AIPlayer player = new AIPlayer(midgame, model -> marker, 14, 1.5);
+    Assert.assertEquals(selective, player.chooseNextMove(new BasicReversi(4)).get());
+    Assert.assertEquals(marker, player.chooseNextMove(endgame(4, 14)).get());
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testEndgameThresholdNotNegative() {
+    new AIPlayer(new EndgameSolver(100), new EndgameSolver(100), -1);
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testAlphaBetaNeedsBudget() {
+    new AlphaBetaStrategy(0);
+  }
+
+  /**
+   * Plays random moves on a board of the given size until at most the given number of cells are
+   * EMPTY and the player to move has a move.
+   */
+  private static BasicReversi endgame(int size, int empties) {
+    Random random = new Random(size);
+    while (true) {
+      BasicReversi model = new BasicReversi(size);
+      while (!model.isGameOver() && model.getEmptyCount() > empties) {
+        List<Coordinate> moves = model.getAllMoves();
+        if (moves.isEmpty()) {
+          model.pass();
+        } else {
+          Coordinate move = moves.get(random.nextInt(moves.size()));
+          model.move(move.getQ(), move.getR());
+        }
+      }
+      if (!model.isGameOver() && !model.getAllMoves().isEmpty()) {
+        return model;
+      }
+    }
+  }
+
+  /**
+   * Returns the final disc difference for the player to move under perfect play, found by
+   * searching every line to the end without any pruning.
+   */
+  private static int perfectPlay(BasicReversi model) {
+    PlayColor player = model.getColor();
+    if (model.isGameOver()) {
+      PlayColor other = player == PlayColor.BLACK ? PlayColor.WHITE : PlayColor.BLACK;
+      return model.getScore(player) - model.getScore(other);
+    }
+    if (model.hasNoMoves(player)) {
+      MoveDelta pass = model.makePass();
+      int value = -perfectPlay(model);
+      model.unmakeMove(pass);
+      return value;
+    }
+    int best = Integer.MIN_VALUE;
+    for (Coordinate move : model.getAllMoves()) {
+      MoveDelta delta = model.makeMove(move.getQ(), move.getR());
+      best = Math.max(best, -perfectPlay(model));
+      model.unmakeMove(delta);
+    }
+    return best;
+  }
 }
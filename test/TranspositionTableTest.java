@@ -0,0 +1,96 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import controller.TranspositionTable;
+
+/**
+ * The purpose of the TranspositionTableTest is to test the TranspositionTable shared by the
+ * searching strategies.
+ */
+public class TranspositionTableTest {
+  // hashes that only differ above the low bits land in the same bucket
+  private static final long SAME_BUCKET = 1L << 40;
+
+  @Test
+  public void testStoreAndProbe() {
+    TranspositionTable table = new TranspositionTable(1);
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(42));
+    table.store(42, 7, TranspositionTable.LOWER, -1234, 17);
+    long entry = table.probe(42);
+    Assert.assertNotEquals(TranspositionTable.MISS, entry);
+    Assert.assertEquals(7, TranspositionTable.depthOf(entry));
+    Assert.assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(entry));
+    Assert.assertEquals(-1234, TranspositionTable.scoreOf(entry));
+    Assert.assertEquals(17, TranspositionTable.moveOf(entry));
+    table.store(43, 0, TranspositionTable.EXACT, 5, -1);
+    Assert.assertEquals(-1, TranspositionTable.moveOf(table.probe(43)));
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(42 + SAME_BUCKET));
+  }
+
+  @Test
+  public void testDepthPreferredReplacement() {
+    TranspositionTable table = new TranspositionTable(1);
+    table.store(5, 10, TranspositionTable.EXACT, 1, -1);
+    table.store(5 + SAME_BUCKET, 3, TranspositionTable.EXACT, 2, -1);
+    table.store(5 + 2 * SAME_BUCKET, 5, TranspositionTable.EXACT, 3, -1);
+    Assert.assertNotEquals(TranspositionTable.MISS, table.probe(5));
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(5 + SAME_BUCKET));
+    Assert.assertEquals(3, TranspositionTable.scoreOf(table.probe(5 + 2 * SAME_BUCKET)));
+
+    // entries of an earlier search give way first, however deep they were
+    table.newSearch();
+    table.store(5 + 3 * SAME_BUCKET, 1, TranspositionTable.EXACT, 4, -1);
+    table.store(5 + 4 * SAME_BUCKET, 1, TranspositionTable.EXACT, 5, -1);
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(5));
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(5 + 2 * SAME_BUCKET));
+  }
+
+  @Test
+  public void testStatistics() {
+    TranspositionTable table = new TranspositionTable(1);
+    table.store(1, 1, TranspositionTable.EXACT, 0, -1);
+    table.probe(1);
+    table.probe(2);
+    Assert.assertEquals(2, table.getProbes());
+    Assert.assertEquals(1, table.getHits());
+    Assert.assertEquals(1, table.getStores());
+    Assert.assertEquals(0.5, table.getHitRate(), 1e-9);
+    Assert.assertTrue(table.getFill() > 0);
+    table.clear();
+    Assert.assertEquals(0, table.getProbes());
+    Assert.assertEquals(TranspositionTable.MISS, table.probe(1));
+  }
+
+  @Test
+  public void testConcurrentProbesNeverSeeTornEntries() throws InterruptedException {
+    TranspositionTable table = new TranspositionTable(1);
+    Thread[] threads = new Thread[4];
+    boolean[] torn = new boolean[threads.length];
+    for (int t = 0; t < threads.length; t++) {
+      int id = t;
+      threads[t] = new Thread(() -> {
+        for (long i = 0; i < 200_000; i++) {
+          // few distinct buckets, so the threads keep overwriting each other's entries
+          long hash = (i % 64) * 0x9E3779B97F4A7C15L;
+          table.store(hash, id, TranspositionTable.EXACT, (int) hash, -1);
+          long entry = table.probe(hash);
+          if (entry != TranspositionTable.MISS && TranspositionTable.scoreOf(entry) != (int) hash) {
+            torn[id] = true;
+          }
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (boolean saw : torn) {
+      Assert.assertFalse(saw);
+    }
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testSizeMustBePositive() {
+    new TranspositionTable(0);
+  }
+}